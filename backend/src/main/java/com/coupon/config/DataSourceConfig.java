@@ -8,6 +8,8 @@ import org.springframework.context.annotation.Primary;
 import javax.sql.DataSource;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.sql.Connection;
+import java.sql.SQLException;
 
 @Configuration
 public class DataSourceConfig {
@@ -67,4 +69,13 @@ public class DataSourceConfig {
         
         return dataSource;
     }
+
+    @Bean
+    public DatabaseDialect databaseDialect(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return DatabaseDialect.fromProductName(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to determine database platform", e);
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.coupon.config;
+
+public enum DatabaseDialect {
+    POSTGRESQL,
+    ORACLE,
+    OTHER;
+
+    public static DatabaseDialect fromProductName(String productName) {
+        if (productName == null) {
+            return OTHER;
+        }
+        String name = productName.toLowerCase();
+        if (name.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (name.contains("oracle")) {
+            return ORACLE;
+        }
+        return OTHER;
+    }
+}
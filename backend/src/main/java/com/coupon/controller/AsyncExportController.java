@@ -1,16 +1,24 @@
 package com.coupon.controller;
 
 import com.coupon.dto.ExportJobDTO;
+import com.coupon.entity.ExportCompression;
+import com.coupon.entity.ExportJob;
 import com.coupon.service.AsyncExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 @RestController
@@ -20,15 +28,27 @@ public class AsyncExportController {
 
     private final AsyncExportService asyncExportService;
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @PostMapping("/batch/{batchId}")
-    public ResponseEntity<ExportJobDTO> submitBatchExport(@PathVariable Long batchId) {
-        ExportJobDTO job = asyncExportService.submitBatchExport(batchId);
+    public ResponseEntity<ExportJobDTO> submitBatchExport(@PathVariable Long batchId,
+                                                          @RequestParam(required = false) ExportCompression compression) {
+        ExportJobDTO job = asyncExportService.submitBatchExport(batchId, compression);
         return ResponseEntity.ok(job);
     }
 
     @PostMapping("/all")
-    public ResponseEntity<ExportJobDTO> submitAllExport() {
-        ExportJobDTO job = asyncExportService.submitAllExport();
+    public ResponseEntity<ExportJobDTO> submitAllExport(@RequestParam(required = false) ExportCompression compression) {
+        ExportJobDTO job = asyncExportService.submitAllExport(compression);
+        return ResponseEntity.ok(job);
+    }
+
+    @PostMapping("/delta")
+    public ResponseEntity<ExportJobDTO> submitDeltaExport(@RequestParam(required = false) ExportCompression compression) {
+        ExportJobDTO job = asyncExportService.submitDeltaExport(compression);
         return ResponseEntity.ok(job);
     }
 
@@ -38,12 +58,24 @@ public class AsyncExportController {
         return ResponseEntity.ok(job);
     }
 
+    @PostMapping("/job/{jobId}/cancel")
+    public ResponseEntity<ExportJobDTO> cancelJob(@PathVariable Long jobId) {
+        ExportJobDTO job = asyncExportService.cancelJob(jobId);
+        return ResponseEntity.ok(job);
+    }
+
     @GetMapping("/jobs")
     public ResponseEntity<List<ExportJobDTO>> getAllJobs() {
         List<ExportJobDTO> jobs = asyncExportService.getAllJobs();
         return ResponseEntity.ok(jobs);
     }
 
+    @GetMapping("/jobs/active")
+    public ResponseEntity<List<ExportJobDTO>> getActiveJobs() {
+        List<ExportJobDTO> jobs = asyncExportService.getActiveJobs();
+        return ResponseEntity.ok(jobs);
+    }
+
     @GetMapping("/jobs/batch/{batchId}")
     public ResponseEntity<List<ExportJobDTO>> getJobsForBatch(@PathVariable Long batchId) {
         List<ExportJobDTO> jobs = asyncExportService.getJobsForBatch(batchId);
@@ -51,15 +83,62 @@ public class AsyncExportController {
     }
 
     @GetMapping("/download/{jobId}")
-    public ResponseEntity<Resource> downloadExport(@PathVariable Long jobId) {
-        File file = asyncExportService.getExportFile(jobId);
+    public void downloadExport(@PathVariable Long jobId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportJob job = asyncExportService.getCompletedJob(jobId);
+        File file = new File(job.getFilePath());
+        long length = file.length();
+        String etag = "\"" + job.getId() + "-" + length + "-" + file.lastModified() + "\"";
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"");
+        response.setContentType(job.getCompression() == ExportCompression.GZIP ? "application/gzip" : "text/csv");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
 
-        FileSystemResource resource = new FileSystemResource(file);
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges = parseRanges(range);
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        response.setContentLengthLong(end - start + 1);
+        if (end < start) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .contentLength(file.length())
-                .body(resource);
+    private List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
     }
 }
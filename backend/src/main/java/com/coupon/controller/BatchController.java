@@ -1,7 +1,9 @@
 package com.coupon.controller;
 
 import com.coupon.dto.CouponBatchDTO;
+import com.coupon.dto.GenerationJobDTO;
 import com.coupon.service.CouponBatchService;
+import com.coupon.service.GenerationJobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -18,6 +20,7 @@ import java.util.Map;
 public class BatchController {
 
     private final CouponBatchService batchService;
+    private final GenerationJobService generationJobService;
 
     @GetMapping
     public ResponseEntity<List<CouponBatchDTO>> getAllBatches() {
@@ -37,7 +40,22 @@ public class BatchController {
     @PostMapping
     public ResponseEntity<CouponBatchDTO> createBatch(@Valid @RequestBody CouponBatchDTO dto) {
         CouponBatchDTO created = batchService.createBatch(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(created);
+    }
+
+    @GetMapping("/{id}/generation-job")
+    public ResponseEntity<GenerationJobDTO> getGenerationJobForBatch(@PathVariable Long id) {
+        return ResponseEntity.ok(generationJobService.getLatestJobForBatch(id));
+    }
+
+    @GetMapping("/generation-jobs")
+    public ResponseEntity<List<GenerationJobDTO>> getGenerationJobs() {
+        return ResponseEntity.ok(generationJobService.getAllJobs());
+    }
+
+    @GetMapping("/generation-jobs/{jobId}")
+    public ResponseEntity<GenerationJobDTO> getGenerationJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(generationJobService.getJob(jobId));
     }
 
     @DeleteMapping("/{id}")
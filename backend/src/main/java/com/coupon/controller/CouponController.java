@@ -30,7 +30,10 @@ public class CouponController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "false") Boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean includeTotal) {
 
         CouponSearchDTO searchDTO = CouponSearchDTO.builder()
                 .code(code)
@@ -42,6 +45,9 @@ public class CouponController {
                 .createdTo(createdTo)
                 .page(page)
                 .size(size)
+                .keyset(keyset)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
                 .build();
 
         return ResponseEntity.ok(couponService.searchCoupons(searchDTO));
@@ -1,14 +1,21 @@
 package com.coupon.controller;
 
 import com.coupon.dto.CouponLookupResponseDTO;
-import com.coupon.entity.Campaign;
 import com.coupon.entity.Coupon;
-import com.coupon.entity.CouponBatch;
 import com.coupon.repository.CouponRepository;
+import com.coupon.service.BatchMetadata;
+import com.coupon.service.BatchMetadataCache;
+import com.coupon.service.CouponCodeFilter;
+import com.coupon.service.CouponCodeValidator;
+import com.coupon.service.CouponNotFoundException;
+import com.coupon.service.InvalidCouponCodeException;
+import com.coupon.service.VirtualBatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/public/coupon")
 @RequiredArgsConstructor
@@ -16,25 +23,38 @@ import org.springframework.web.bind.annotation.*;
 public class CouponLookupController {
 
     private final CouponRepository couponRepository;
+    private final BatchMetadataCache batchMetadataCache;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponCodeValidator couponCodeValidator;
+    private final VirtualBatchService virtualBatchService;
 
     @GetMapping("/{code}")
     public ResponseEntity<CouponLookupResponseDTO> lookupCoupon(@PathVariable String code) {
-        Coupon coupon = couponRepository.findByCodeWithBatchAndCampaign(code.toUpperCase())
-                .orElseThrow(() -> new RuntimeException("Coupon not found: " + code));
+        String normalizedCode = code.toUpperCase();
+        if (!couponCodeValidator.isWellFormed(normalizedCode)) {
+            throw new InvalidCouponCodeException(code);
+        }
+        if (!couponCodeFilter.mightExist(normalizedCode)) {
+            throw new CouponNotFoundException(code);
+        }
+
+        Coupon coupon = couponRepository.findByCode(normalizedCode)
+                .or(() -> virtualBatchService.materialize(normalizedCode)
+                        ? couponRepository.findByCode(normalizedCode) : Optional.empty())
+                .orElseThrow(() -> new CouponNotFoundException(code));
 
-        CouponBatch batch = coupon.getBatch();
-        Campaign campaign = batch.getCampaign();
+        BatchMetadata metadata = batchMetadataCache.get(coupon.getBatch().getId());
 
         CouponLookupResponseDTO response = CouponLookupResponseDTO.builder()
                 .couponCode(coupon.getCode())
-                .posCode(campaign.getPosCode())
-                .atgCode(campaign.getAtgCode())
+                .posCode(metadata.getPosCode())
+                .atgCode(metadata.getAtgCode())
                 .status(coupon.getStatus().name())
                 .usageCount(coupon.getUsageCount())
-                .maxUsages(campaign.getMaxUsages())
-                .campaignName(campaign.getName())
-                .startDate(campaign.getStartDate() != null ? campaign.getStartDate().toString() : null)
-                .expiryDate(campaign.getExpiryDate() != null ? campaign.getExpiryDate().toString() : null)
+                .maxUsages(metadata.getMaxUsages())
+                .campaignName(metadata.getCampaignName())
+                .startDate(metadata.getStartDate() != null ? metadata.getStartDate().toString() : null)
+                .expiryDate(metadata.getExpiryDate() != null ? metadata.getExpiryDate().toString() : null)
                 .build();
 
         return ResponseEntity.ok(response);
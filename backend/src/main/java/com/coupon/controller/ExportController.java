@@ -1,11 +1,14 @@
 package com.coupon.controller;
 
 import com.coupon.service.ExportService;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/export")
@@ -16,12 +19,22 @@ public class ExportController {
     private final ExportService exportService;
 
     @GetMapping("/batch/{batchId}")
-    public void exportBatchToCSV(@PathVariable Long batchId, HttpServletResponse response) throws IOException {
-        exportService.exportBatchToCSV(batchId, response);
+    public ResponseEntity<StreamingResponseBody> exportBatchToCSV(@PathVariable Long batchId) {
+        return csvResponse("batch_" + batchId + "_coupons.csv", exportService.exportBatchToCSV(batchId));
     }
 
     @GetMapping("/all")
-    public void exportAllToCSV(HttpServletResponse response) throws IOException {
-        exportService.exportAllToCSV(response);
+    public ResponseEntity<StreamingResponseBody> exportAllToCSV() {
+        return csvResponse("all_coupons.csv", exportService.exportAllToCSV());
+    }
+
+    private ResponseEntity<StreamingResponseBody> csvResponse(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate")
+                .header(HttpHeaders.PRAGMA, "no-cache")
+                .header(HttpHeaders.EXPIRES, "0")
+                .body(body);
     }
 }
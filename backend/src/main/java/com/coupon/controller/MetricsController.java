@@ -0,0 +1,43 @@
+package com.coupon.controller;
+
+import com.coupon.service.BatchMetadataCache;
+import com.coupon.service.CouponCodeFilter;
+import com.coupon.service.PrefixOccupancyRegistry;
+import com.coupon.service.RedemptionEventWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    private final BatchMetadataCache batchMetadataCache;
+    private final RedemptionEventWriter redemptionEventWriter;
+    private final CouponCodeFilter couponCodeFilter;
+    private final PrefixOccupancyRegistry prefixOccupancyRegistry;
+
+    @GetMapping("/batch-metadata-cache")
+    public ResponseEntity<Map<String, Object>> getBatchMetadataCacheStats() {
+        return ResponseEntity.ok(batchMetadataCache.getStats());
+    }
+
+    @GetMapping("/redemption-events")
+    public ResponseEntity<Map<String, Object>> getRedemptionEventStats() {
+        return ResponseEntity.ok(redemptionEventWriter.getStats());
+    }
+
+    @GetMapping("/code-filter")
+    public ResponseEntity<Map<String, Object>> getCodeFilterStats() {
+        return ResponseEntity.ok(couponCodeFilter.getStats());
+    }
+
+    @GetMapping("/prefix-occupancy")
+    public ResponseEntity<Map<String, Object>> getPrefixOccupancyStats() {
+        return ResponseEntity.ok(prefixOccupancyRegistry.getStats());
+    }
+}
@@ -1,17 +1,25 @@
 package com.coupon.controller;
 
+import com.coupon.dto.BulkRedemptionMode;
+import com.coupon.dto.BulkRedemptionResponseDTO;
 import com.coupon.dto.RedemptionRequestDTO;
 import com.coupon.dto.RedemptionResponseDTO;
 import com.coupon.service.RedemptionService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/public/redeem")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
+@Validated
 public class RedemptionController {
 
     private final RedemptionService redemptionService;
@@ -22,6 +30,18 @@ public class RedemptionController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRedemptionResponseDTO> redeemCoupons(
+            @RequestBody
+            @NotEmpty(message = "At least one coupon is required for bulk redemption")
+            @Size(max = RedemptionService.BULK_MAX_ITEMS,
+                    message = "Bulk redemption accepts at most " + RedemptionService.BULK_MAX_ITEMS + " coupons per request")
+            List<@Valid RedemptionRequestDTO> requests,
+            @RequestParam(defaultValue = "BEST_EFFORT") BulkRedemptionMode mode) {
+        BulkRedemptionResponseDTO response = redemptionService.redeemCoupons(requests, mode);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{code}")
     public ResponseEntity<RedemptionResponseDTO> redeemCouponGet(@PathVariable String code) {
         RedemptionResponseDTO response = redemptionService.redeemCoupon(code);
@@ -0,0 +1,6 @@
+package com.coupon.dto;
+
+public enum BulkRedemptionMode {
+    BEST_EFFORT,
+    ALL_OR_NOTHING
+}
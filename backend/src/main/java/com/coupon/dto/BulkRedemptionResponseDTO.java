@@ -0,0 +1,20 @@
+package com.coupon.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRedemptionResponseDTO {
+
+    private BulkRedemptionMode mode;
+    private boolean success;
+    private int requestedCount;
+    private int redeemedCount;
+    private int rejectedCount;
+    private List<RedemptionResponseDTO> results;
+}
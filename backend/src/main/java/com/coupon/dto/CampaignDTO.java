@@ -1,5 +1,7 @@
 package com.coupon.dto;
 
+import com.coupon.entity.CodeFormat;
+import com.coupon.entity.GenerationMode;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -36,6 +38,10 @@ public class CampaignDTO {
 
     private String prefix;
 
+    private CodeFormat codeFormat;
+
+    private GenerationMode generationMode;
+
     @NotNull(message = "Max usages is required")
     @Min(value = 1, message = "Max usages must be at least 1")
     private Integer maxUsages;
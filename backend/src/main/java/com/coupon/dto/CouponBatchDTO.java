@@ -1,5 +1,6 @@
 package com.coupon.dto;
 
+import com.coupon.entity.GenerationStatus;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -36,4 +37,9 @@ public class CouponBatchDTO {
     private Long activeCoupons;
     private Long usedCoupons;
     private Long expiredCoupons;
+
+    private Boolean virtualBatch;
+
+    private Long generationJobId;
+    private GenerationStatus generationStatus;
 }
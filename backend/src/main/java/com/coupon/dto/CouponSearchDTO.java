@@ -20,4 +20,7 @@ public class CouponSearchDTO {
     private LocalDate createdTo;
     private Integer page;
     private Integer size;
+    private Boolean keyset;
+    private String cursor;
+    private Boolean includeTotal;
 }
@@ -1,5 +1,6 @@
 package com.coupon.dto;
 
+import com.coupon.entity.ExportCompression;
 import com.coupon.entity.ExportStatus;
 import lombok.*;
 
@@ -19,6 +20,17 @@ public class ExportJobDTO {
     private ExportStatus status;
     private String fileName;
     private Long totalRecords;
+    private ExportCompression compression;
+    private Long fileSizeBytes;
+    private Long uncompressedSizeBytes;
+    private LocalDateTime watermarkFrom;
+    private LocalDateTime watermarkTo;
+    private LocalDateTime startedAt;
+    private Long expectedRecords;
+    private Long rowsWritten;
+    private Long bytesWritten;
+    private Long rowsPerSecond;
+    private LocalDateTime estimatedCompletion;
     private String errorMessage;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
@@ -0,0 +1,30 @@
+package com.coupon.dto;
+
+import com.coupon.entity.GenerationStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationJobDTO {
+
+    private Long id;
+    private Long batchId;
+    private Long campaignId;
+    private GenerationStatus status;
+    private Integer requestedCount;
+    private Integer generatedCount;
+    private Integer percentComplete;
+    private Long rowsPerSecond;
+    private Long estimatedSecondsRemaining;
+    private Integer attempts;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime checkpointAt;
+    private LocalDateTime completedAt;
+}
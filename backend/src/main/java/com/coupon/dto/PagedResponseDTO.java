@@ -13,8 +13,10 @@ public class PagedResponseDTO<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
+    private String nextCursor;
+    private String prevCursor;
 }
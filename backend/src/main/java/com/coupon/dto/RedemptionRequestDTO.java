@@ -1,6 +1,7 @@
 package com.coupon.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter
@@ -13,9 +14,12 @@ public class RedemptionRequestDTO {
     @NotBlank(message = "Coupon code is required")
     private String code;
     
+    @Size(max = 100, message = "Transaction number must be at most 100 characters")
     private String transactionNumber;
     
+    @Size(max = 100, message = "Loyalty ID must be at most 100 characters")
     private String loyaltyId;
     
+    @Size(max = 20, message = "Source must be at most 20 characters")
     private String source;
 }
@@ -36,6 +36,20 @@ public class Campaign {
     @Column(nullable = false, unique = true, length = 6)
     private String prefix;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "code_format", length = 20)
+    @Builder.Default
+    private CodeFormat codeFormat = CodeFormat.STANDARD;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "generation_mode", length = 20)
+    @Builder.Default
+    private GenerationMode generationMode = GenerationMode.RANDOM;
+
+    @Column(name = "code_counter", updatable = false)
+    @Builder.Default
+    private Long codeCounter = 0L;
+
     @Column(name = "max_usages", nullable = false)
     @Builder.Default
     private Integer maxUsages = 1;
@@ -7,9 +7,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "coupon", indexes = {
     @Index(name = "coupon_code_uk", columnList = "code", unique = true),
-    @Index(name = "coupon_batch_idx", columnList = "batch_id"),
+    @Index(name = "coupon_batch_updated_idx", columnList = "batch_id, updated_at"),
     @Index(name = "coupon_status_idx", columnList = "status"),
-    @Index(name = "coupon_created_idx", columnList = "created_at")
+    @Index(name = "coupon_created_id_idx", columnList = "created_at, id"),
+    @Index(name = "coupon_batch_created_idx", columnList = "batch_id, created_at, id"),
+    @Index(name = "coupon_updated_idx", columnList = "updated_at")
 })
 @Getter
 @Setter
@@ -25,6 +25,13 @@ public class CouponBatch {
     @Column(name = "coupon_count", nullable = false)
     private Integer couponCount;
 
+    @Column(name = "virtual_batch")
+    @Builder.Default
+    private Boolean virtualBatch = false;
+
+    @Column(name = "counter_start", updatable = false)
+    private Long counterStart;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,6 @@
+package com.coupon.entity;
+
+public enum ExportCompression {
+    NONE,
+    GZIP
+}
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "export_job")
+@Table(name = "export_job", indexes = {
+    @Index(name = "export_job_fingerprint_idx", columnList = "fingerprint")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,6 +43,44 @@ public class ExportJob {
     @Column(name = "total_records")
     private Long totalRecords;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    @Builder.Default
+    private ExportCompression compression = ExportCompression.NONE;
+
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes;
+
+    @Column(name = "uncompressed_size_bytes")
+    private Long uncompressedSizeBytes;
+
+    @Column(length = 255)
+    private String fingerprint;
+
+    @Column(name = "watermark_from")
+    private LocalDateTime watermarkFrom;
+
+    @Column(name = "watermark_to")
+    private LocalDateTime watermarkTo;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "expected_records")
+    private Long expectedRecords;
+
+    @Column(name = "rows_written")
+    private Long rowsWritten;
+
+    @Column(name = "bytes_written")
+    private Long bytesWritten;
+
+    @Column(name = "rows_per_second")
+    private Long rowsPerSecond;
+
+    @Column(name = "estimated_completion")
+    private LocalDateTime estimatedCompletion;
+
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
 
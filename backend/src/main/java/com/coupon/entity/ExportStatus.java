@@ -4,5 +4,7 @@ public enum ExportStatus {
     PENDING,
     PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED,
+    CANCELLED,
+    EXPIRED
 }
@@ -0,0 +1,72 @@
+package com.coupon.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "generation_job", indexes = {
+        @Index(name = "generation_job_batch_idx", columnList = "batch_id"),
+        @Index(name = "generation_job_status_idx", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "generation_job_gen")
+    @SequenceGenerator(name = "generation_job_gen", sequenceName = "generation_job_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private GenerationStatus status = GenerationStatus.PENDING;
+
+    @Column(name = "requested_count", nullable = false)
+    private Integer requestedCount;
+
+    @Column(name = "generated_count", nullable = false)
+    @Builder.Default
+    private Integer generatedCount = 0;
+
+    @Column(name = "chunks_completed", nullable = false)
+    @Builder.Default
+    private Integer chunksCompleted = 0;
+
+    @Column(name = "run_start_count")
+    private Integer runStartCount;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "checkpoint_at")
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
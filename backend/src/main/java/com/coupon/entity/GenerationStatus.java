@@ -0,0 +1,8 @@
+package com.coupon.entity;
+
+public enum GenerationStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,44 @@
+package com.coupon.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "redemption_event", indexes = {
+    @Index(name = "redemption_event_code_idx", columnList = "code"),
+    @Index(name = "redemption_event_redeemed_idx", columnList = "redeemed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RedemptionEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "redemption_event_gen")
+    @SequenceGenerator(name = "redemption_event_gen", sequenceName = "redemption_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false, length = 14)
+    private String code;
+
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    @Column(name = "usage_count", nullable = false)
+    private Integer usageCount;
+
+    @Column(name = "transaction_number", length = 100)
+    private String transactionNumber;
+
+    @Column(name = "loyalty_id", length = 100)
+    private String loyaltyId;
+
+    @Column(name = "source", length = 20)
+    private String source;
+
+    @Column(name = "redeemed_at", nullable = false)
+    private LocalDateTime redeemedAt;
+}
@@ -0,0 +1,51 @@
+package com.coupon.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "redemption_receipt", uniqueConstraints = {
+    @UniqueConstraint(name = "redemption_receipt_key_uk", columnNames = "idempotency_key")
+}, indexes = {
+    @Index(name = "redemption_receipt_created_idx", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RedemptionReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "redemption_receipt_gen")
+    @SequenceGenerator(name = "redemption_receipt_gen", sequenceName = "redemption_receipt_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, length = 140)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 14)
+    private String code;
+
+    @Column(name = "transaction_number", nullable = false, length = 100)
+    private String transactionNumber;
+
+    @Column(name = "source", length = 20)
+    private String source;
+
+    @Column(name = "loyalty_id", length = 100)
+    private String loyaltyId;
+
+    @Column(name = "usage_count")
+    private Integer usageCount;
+
+    @Column(name = "max_usages")
+    private Integer maxUsages;
+
+    @Column(name = "redeemed_at")
+    private LocalDateTime redeemedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
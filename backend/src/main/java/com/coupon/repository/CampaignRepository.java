@@ -21,6 +21,8 @@ public interface CampaignRepository extends JpaRepository<Campaign, Long> {
     @Query("SELECT c FROM Campaign c WHERE c.active = true ORDER BY c.createdAt DESC")
     List<Campaign> findAllActiveCampaigns();
 
+    Optional<Campaign> findByPrefix(String prefix);
+
     boolean existsByPrefix(String prefix);
 
     boolean existsByPrefixAndIdNot(String prefix, Long id);
@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CouponBatchRepository extends JpaRepository<CouponBatch, Long> {
@@ -17,6 +19,21 @@ public interface CouponBatchRepository extends JpaRepository<CouponBatch, Long>
     @Query("SELECT cb FROM CouponBatch cb JOIN FETCH cb.campaign ORDER BY cb.createdAt DESC")
     List<CouponBatch> findAllWithCampaign();
 
+    @Query("SELECT cb FROM CouponBatch cb JOIN FETCH cb.campaign WHERE cb.id = :id")
+    Optional<CouponBatch> findByIdWithCampaign(@Param("id") Long id);
+
+    @Query("SELECT cb FROM CouponBatch cb JOIN FETCH cb.campaign WHERE cb.campaign.id = :campaignId " +
+           "AND cb.virtualBatch = true AND cb.counterStart <= :counter AND cb.counterStart + cb.couponCount > :counter")
+    Optional<CouponBatch> findVirtualBatchContaining(@Param("campaignId") Long campaignId, @Param("counter") long counter);
+
+    boolean existsByCampaignIdAndVirtualBatchTrue(Long campaignId);
+
+    @Query("SELECT DISTINCT cb.campaign.prefix FROM CouponBatch cb WHERE cb.virtualBatch = true")
+    List<String> findVirtualBatchPrefixes();
+
+    @Query("SELECT COUNT(cb) > 0 FROM CouponBatch cb WHERE cb.campaign.prefix = :prefix AND cb.virtualBatch = true")
+    boolean existsVirtualBatchWithPrefix(@Param("prefix") String prefix);
+
     @Query("SELECT cb FROM CouponBatch cb JOIN FETCH cb.campaign WHERE cb.campaign.id = :campaignId ORDER BY cb.createdAt DESC")
     List<CouponBatch> findByCampaignIdWithCampaign(@Param("campaignId") Long campaignId);
 
@@ -28,4 +45,23 @@ public interface CouponBatchRepository extends JpaRepository<CouponBatch, Long>
 
     @Query("SELECT COUNT(c) FROM Coupon c WHERE c.batch.id = :batchId AND c.status = 'EXPIRED'")
     Long countExpiredCouponsByBatchId(@Param("batchId") Long batchId);
+
+    @Query("SELECT c.batch.id AS batchId, COUNT(c) AS stored, " +
+           "SUM(CASE WHEN c.status = 'ACTIVE' THEN 1 ELSE 0 END) AS active, " +
+           "SUM(CASE WHEN c.usageCount > 0 THEN 1 ELSE 0 END) AS used, " +
+           "SUM(CASE WHEN c.status = 'EXPIRED' THEN 1 ELSE 0 END) AS expired " +
+           "FROM Coupon c WHERE c.batch.id IN :batchIds GROUP BY c.batch.id")
+    List<CouponCounts> countCouponsByBatchIds(@Param("batchIds") Collection<Long> batchIds);
+
+    interface CouponCounts {
+        Long getBatchId();
+
+        Long getStored();
+
+        Long getActive();
+
+        Long getUsed();
+
+        Long getExpired();
+    }
 }
@@ -12,7 +12,6 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecificationExecutor<Coupon> {
@@ -29,6 +28,9 @@ public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecif
     @Query("SELECT c FROM Coupon c JOIN FETCH c.batch b JOIN FETCH b.campaign WHERE c.code = :code")
     Optional<Coupon> findByCodeWithBatchAndCampaign(@Param("code") String code);
 
+    @Query("SELECT c FROM Coupon c JOIN FETCH c.batch b JOIN FETCH b.campaign WHERE c.id IN :ids")
+    java.util.List<Coupon> findAllWithBatchAndCampaignByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
     @Modifying
     @Query("UPDATE Coupon c SET c.status = :status, c.updatedAt = CURRENT_TIMESTAMP WHERE c.batch.id = :batchId")
     int updateStatusByBatchId(@Param("batchId") Long batchId, @Param("status") CouponStatus status);
@@ -39,11 +41,8 @@ public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecif
            "AND c.status = 'ACTIVE'")
     int expireCoupons(@Param("today") LocalDate today);
 
-    @Query("SELECT c FROM Coupon c WHERE c.batch.id = :batchId")
-    Stream<Coupon> streamByBatchId(@Param("batchId") Long batchId);
-
-    @Query("SELECT c FROM Coupon c")
-    Stream<Coupon> streamAll();
+    @Query("SELECT COUNT(c) FROM Coupon c WHERE c.batch.id = :batchId")
+    Long countByBatchId(@Param("batchId") Long batchId);
 
     @Query("SELECT COUNT(c) FROM Coupon c WHERE c.batch.campaign.id = :campaignId")
     Long countByCampaignId(@Param("campaignId") Long campaignId);
@@ -5,7 +5,9 @@ import com.coupon.entity.ExportStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
@@ -17,4 +19,14 @@ public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
     List<ExportJob> findByStatusOrderByCreatedAtAsc(ExportStatus status);
 
     List<ExportJob> findAllByOrderByCreatedAtDesc();
+
+    List<ExportJob> findByStatusInOrderByCreatedAtAsc(Collection<ExportStatus> statuses);
+
+    List<ExportJob> findByStatusOrderByCompletedAtAsc(ExportStatus status);
+
+    Optional<ExportJob> findFirstByExportTypeAndStatusInOrderByWatermarkToDesc(String exportType, Collection<ExportStatus> statuses);
+
+    Optional<ExportJob> findFirstByFingerprintAndStatusInOrderByCreatedAtDesc(String fingerprint, Collection<ExportStatus> statuses);
+
+    Optional<ExportJob> findFirstByExportTypeAndStatusInOrderByCreatedAtAsc(String exportType, Collection<ExportStatus> statuses);
 }
@@ -0,0 +1,42 @@
+package com.coupon.repository;
+
+import com.coupon.entity.GenerationJob;
+import com.coupon.entity.GenerationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+
+    Optional<GenerationJob> findFirstByBatchIdOrderByCreatedAtDesc(Long batchId);
+
+    @Query("SELECT j FROM GenerationJob j WHERE j.batchId IN :batchIds AND j.createdAt = " +
+           "(SELECT MAX(latest.createdAt) FROM GenerationJob latest WHERE latest.batchId = j.batchId)")
+    List<GenerationJob> findLatestByBatchIdIn(@Param("batchIds") Collection<Long> batchIds);
+
+    List<GenerationJob> findByStatusInOrderByCreatedAtAsc(Collection<GenerationStatus> statuses);
+
+    List<GenerationJob> findAllByOrderByCreatedAtDesc();
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = com.coupon.entity.GenerationStatus.PROCESSING, " +
+           "j.startedAt = :now, j.checkpointAt = :now, j.runStartCount = j.generatedCount, " +
+           "j.attempts = j.attempts + 1, j.errorMessage = NULL " +
+           "WHERE j.id = :id AND (j.status = com.coupon.entity.GenerationStatus.PENDING " +
+           "OR (j.status = com.coupon.entity.GenerationStatus.PROCESSING " +
+           "AND (j.checkpointAt IS NULL OR j.checkpointAt < :staleBefore)))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.generatedCount = j.generatedCount + :inserted, " +
+           "j.chunksCompleted = j.chunksCompleted + 1, j.checkpointAt = :now WHERE j.id = :id")
+    int recordChunk(@Param("id") Long id, @Param("inserted") int inserted, @Param("now") LocalDateTime now);
+}
@@ -1,24 +1,50 @@
 package com.coupon.service;
 
+import com.coupon.config.DatabaseDialect;
 import com.coupon.dto.ExportJobDTO;
 import com.coupon.entity.*;
 import com.coupon.repository.CouponBatchRepository;
-import com.coupon.repository.CouponRepository;
 import com.coupon.repository.ExportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,66 +52,329 @@ import java.util.stream.Collectors;
 public class AsyncExportService {
 
     private final ExportJobRepository exportJobRepository;
-    private final CouponRepository couponRepository;
     private final CouponBatchRepository batchRepository;
+    private final CouponCsvExporter couponCsvExporter;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${coupon.export.job-threads:2}")
+    private int jobThreads;
+
+    @Value("${coupon.export.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${coupon.export.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Value("${coupon.export.compression:NONE}")
+    private ExportCompression defaultCompression;
+
+    @Value("${coupon.export.delta-lag-seconds:60}")
+    private long deltaLagSeconds;
+
+    @Value("${coupon.export.progress-interval-ms:2000}")
+    private long progressIntervalMs;
+
+    @Value("${coupon.export.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${coupon.export.disk-quota-mb:10240}")
+    private long diskQuotaMb;
 
     private static final String EXPORT_DIR = "exports";
+    private static final int GZIP_BUFFER_SIZE = 65536;
+    private static final String CHECKPOINT_SQL =
+            "UPDATE export_job SET rows_written = ?, bytes_written = ?, rows_per_second = ?, estimated_completion = ? " +
+            "WHERE id = ? AND status = 'PROCESSING'";
+    private static final String START_SQL =
+            "UPDATE export_job SET status = 'PROCESSING', started_at = ?, expected_records = ?, watermark_from = ?, " +
+            "watermark_to = ?, rows_written = 0, bytes_written = 0, rows_per_second = NULL, estimated_completion = NULL " +
+            "WHERE id = ? AND status IN ('PENDING', 'PROCESSING')";
+    private static final String COMPLETE_SQL =
+            "UPDATE export_job SET status = 'COMPLETED', file_name = ?, file_path = ?, total_records = ?, " +
+            "uncompressed_size_bytes = ?, file_size_bytes = ?, rows_written = ?, bytes_written = ?, " +
+            "rows_per_second = ?, estimated_completion = NULL, completed_at = ? " +
+            "WHERE id = ? AND status = 'PROCESSING'";
+    private static final String FINISH_SQL =
+            "UPDATE export_job SET status = ?, error_message = ?, completed_at = ? " +
+            "WHERE id = ? AND status IN ('PENDING', 'PROCESSING')";
+    private static final String EXPIRE_SQL =
+            "UPDATE export_job SET status = 'EXPIRED', error_message = ? WHERE id = ? AND status = 'COMPLETED'";
     private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
-    @Transactional
-    public ExportJobDTO submitBatchExport(Long batchId) {
-        CouponBatch batch = batchRepository.findById(batchId)
+    private final Map<Long, Future<?>> runningJobs = new ConcurrentHashMap<>();
+    private final Object submitLock = new Object();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Export jobs still running after {} s; interrupting them", shutdownTimeoutSeconds);
+            executor.shutdownNow();
+        }
+    }
+
+    public ExportJobDTO submitBatchExport(Long batchId, ExportCompression compression) {
+        ExportCompression effectiveCompression = compression != null ? compression : defaultCompression;
+        CouponBatch batch = batchRepository.findByIdWithCampaign(batchId)
                 .orElseThrow(() -> new RuntimeException("Batch not found: " + batchId));
+        String fingerprint = batchFingerprint(batch, effectiveCompression);
+
+        synchronized (submitLock) {
+            return transactionTemplate.execute(status -> {
+                Optional<ExportJob> existing = findReusableJob(fingerprint);
+                if (existing.isPresent()) {
+                    log.info("Reusing export job {} ({}) for batch {}", existing.get().getId(),
+                            existing.get().getStatus(), batchId);
+                    return toDTO(existing.get());
+                }
+
+                ExportJob job = ExportJob.builder()
+                        .batchId(batchId)
+                        .campaignId(batch.getCampaign().getId())
+                        .exportType("BATCH")
+                        .compression(effectiveCompression)
+                        .fingerprint(fingerprint)
+                        .status(ExportStatus.PENDING)
+                        .build();
+
+                ExportJob saved = exportJobRepository.save(job);
+                log.info("Created export job {} for batch {}", saved.getId(), batchId);
+
+                dispatchAfterCommit(saved.getId());
+
+                return toDTO(saved);
+            });
+        }
+    }
+
+    public ExportJobDTO submitAllExport(ExportCompression compression) {
+        ExportCompression effectiveCompression = compression != null ? compression : defaultCompression;
+        String fingerprint = allFingerprint(effectiveCompression);
+
+        synchronized (submitLock) {
+            return transactionTemplate.execute(status -> {
+                Optional<ExportJob> existing = findReusableJob(fingerprint);
+                if (existing.isPresent()) {
+                    log.info("Reusing export job {} ({}) for all coupons", existing.get().getId(),
+                            existing.get().getStatus());
+                    return toDTO(existing.get());
+                }
+
+                ExportJob job = ExportJob.builder()
+                        .exportType("ALL")
+                        .compression(effectiveCompression)
+                        .fingerprint(fingerprint)
+                        .status(ExportStatus.PENDING)
+                        .build();
+
+                ExportJob saved = exportJobRepository.save(job);
+                log.info("Created export job {} for all coupons", saved.getId());
+
+                dispatchAfterCommit(saved.getId());
+
+                return toDTO(saved);
+            });
+        }
+    }
+
+    @Transactional
+    public ExportJobDTO submitDeltaExport(ExportCompression compression) {
+        Optional<ExportJob> unfinished = exportJobRepository.findFirstByExportTypeAndStatusInOrderByCreatedAtAsc(
+                "DELTA", List.of(ExportStatus.PENDING, ExportStatus.PROCESSING));
+        if (unfinished.isPresent()) {
+            log.info("Delta export job {} is still {}; returning it instead of starting another",
+                    unfinished.get().getId(), unfinished.get().getStatus());
+            return toDTO(unfinished.get());
+        }
 
         ExportJob job = ExportJob.builder()
-                .batchId(batchId)
-                .campaignId(batch.getCampaign().getId())
-                .exportType("BATCH")
+                .exportType("DELTA")
+                .compression(compression != null ? compression : defaultCompression)
                 .status(ExportStatus.PENDING)
                 .build();
 
         ExportJob saved = exportJobRepository.save(job);
-        log.info("Created export job {} for batch {}", saved.getId(), batchId);
+        log.info("Created delta export job {}", saved.getId());
 
-        processExportAsync(saved.getId());
+        dispatchAfterCommit(saved.getId());
 
         return toDTO(saved);
     }
 
-    @Transactional
-    public ExportJobDTO submitAllExport() {
-        ExportJob job = ExportJob.builder()
-                .exportType("ALL")
-                .status(ExportStatus.PENDING)
-                .build();
+    @Scheduled(cron = "0 15 * * * ?")
+    public void cleanUpExports() {
+        synchronized (submitLock) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            List<ExportJob> completed = exportJobRepository.findByStatusOrderByCompletedAtAsc(ExportStatus.COMPLETED);
+            long used = directorySize();
+            long quota = diskQuotaMb * 1024 * 1024;
+
+            Set<String> referenced = new HashSet<>();
+            int expired = 0;
+            for (ExportJob job : completed) {
+                boolean tooOld = job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff);
+                if (tooOld || used > quota) {
+                    used -= expire(job, tooOld
+                            ? "Export file removed after " + retentionDays + " days"
+                            : "Export file removed to stay within the export disk quota");
+                    expired++;
+                } else {
+                    referenced.add(new File(job.getFilePath()).getName());
+                }
+            }
 
-        ExportJob saved = exportJobRepository.save(job);
-        log.info("Created export job {} for all coupons", saved.getId());
+            File[] files = new File(EXPORT_DIR).listFiles(File::isFile);
+            long cutoffMillis = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+            for (File file : files != null ? files : new File[0]) {
+                if (!referenced.contains(file.getName()) && file.lastModified() < cutoffMillis && file.delete()) {
+                    log.info("Deleted orphaned export file {}", file.getName());
+                }
+            }
 
-        processExportAsync(saved.getId());
+            if (expired > 0) {
+                log.info("Expired {} export files; exports/ now uses {} MB of {} MB", expired,
+                        used / 1024 / 1024, diskQuotaMb);
+            }
+        }
+    }
 
-        return toDTO(saved);
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (ExportStatus status : List.of(ExportStatus.PROCESSING, ExportStatus.PENDING)) {
+            for (ExportJob job : exportJobRepository.findByStatusOrderByCreatedAtAsc(status)) {
+                log.info("Restarting export job {} left {} by a previous run", job.getId(), status);
+                dispatch(job.getId());
+            }
+        }
+    }
+
+    public ExportJobDTO cancelJob(Long jobId) {
+        if (!finish(jobId, ExportStatus.CANCELLED, "Cancelled by user")) {
+            ExportJob job = exportJobRepository.findById(jobId)
+                    .orElseThrow(() -> new RuntimeException("Export job not found: " + jobId));
+            throw new RuntimeException("Export job " + jobId + " is already " + job.getStatus());
+        }
+
+        Future<?> future = runningJobs.get(jobId);
+        if (future != null) {
+            future.cancel(true);
+        }
+        log.info("Cancelled export job {}", jobId);
+        return getJobStatus(jobId);
+    }
+
+    private Optional<ExportJob> findReusableJob(String fingerprint) {
+        return exportJobRepository.findFirstByFingerprintAndStatusInOrderByCreatedAtDesc(fingerprint,
+                        List.of(ExportStatus.PENDING, ExportStatus.PROCESSING, ExportStatus.COMPLETED))
+                .filter(job -> job.getStatus() != ExportStatus.COMPLETED || new File(job.getFilePath()).exists());
+    }
+
+    private String batchFingerprint(CouponBatch batch, ExportCompression compression) {
+        Map<String, Object> coupons = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS row_count, MAX(updated_at) AS last_updated FROM coupon WHERE batch_id = ?",
+                batch.getId());
+        String fingerprint = String.join("|", "BATCH", String.valueOf(batch.getId()),
+                String.valueOf(coupons.get("row_count")), String.valueOf(coupons.get("last_updated")),
+                String.valueOf(batch.getUpdatedAt()), String.valueOf(batch.getCampaign().getUpdatedAt()),
+                compression.name());
+        if (Boolean.TRUE.equals(batch.getVirtualBatch())) {
+            fingerprint += "|" + LocalDate.now();
+        }
+        return fingerprint;
+    }
+
+    private String allFingerprint(ExportCompression compression) {
+        String sql = "SELECT (SELECT MAX(id) FROM coupon) AS max_id, " +
+                "(SELECT MAX(updated_at) FROM coupon) AS last_updated, " +
+                "(SELECT COUNT(*) FROM coupon_batch) AS batch_count, " +
+                "(SELECT MAX(updated_at) FROM coupon_batch) AS batch_updated, " +
+                "(SELECT MAX(updated_at) FROM campaign) AS campaign_updated" +
+                (databaseDialect == DatabaseDialect.ORACLE ? " FROM dual" : "");
+        Map<String, Object> state = jdbcTemplate.queryForMap(sql);
+        return String.join("|", "ALL", String.valueOf(state.get("max_id")), String.valueOf(state.get("last_updated")),
+                String.valueOf(state.get("batch_count")), String.valueOf(state.get("batch_updated")),
+                String.valueOf(state.get("campaign_updated")), compression.name());
+    }
+
+    private long expire(ExportJob job, String message) {
+        if (jdbcTemplate.update(EXPIRE_SQL, message, job.getId()) == 0) {
+            return 0;
+        }
+        File file = new File(job.getFilePath());
+        long size = file.length();
+        if (file.delete()) {
+            log.info("Deleted export file {} of job {}: {}", job.getFileName(), job.getId(), message);
+        }
+        return size;
     }
 
-    @Async
-    public void processExportAsync(Long jobId) {
+    private long directorySize() {
+        File[] files = new File(EXPORT_DIR).listFiles(File::isFile);
+        long size = 0;
+        for (File file : files != null ? files : new File[0]) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    private void dispatchAfterCommit(Long jobId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(jobId);
+            }
+        });
+    }
+
+    private void dispatch(Long jobId) {
         try {
-            Thread.sleep(100);
-            processExport(jobId);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Export job {} interrupted", jobId);
+            runningJobs.put(jobId, executor.submit(() -> {
+                try {
+                    processExport(jobId);
+                } finally {
+                    runningJobs.remove(jobId);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            log.warn("Export queue is full; rejecting export job {}", jobId);
+            finish(jobId, ExportStatus.FAILED, "Export queue is full, please retry later");
         }
     }
 
-    @Transactional
-    public void processExport(Long jobId) {
+    private void processExport(Long jobId) {
         ExportJob job = exportJobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Export job not found: " + jobId));
+        if (job.getStatus() != ExportStatus.PENDING && job.getStatus() != ExportStatus.PROCESSING) {
+            return;
+        }
 
+        String filePath = null;
         try {
-            job.setStatus(ExportStatus.PROCESSING);
-            exportJobRepository.save(job);
+            if ("DELTA".equals(job.getExportType()) && job.getWatermarkTo() == null) {
+                assignWatermarks(job);
+            }
+            job.setStartedAt(LocalDateTime.now());
+            job.setExpectedRecords(expectedRecords(job));
+            int started = jdbcTemplate.update(START_SQL, Timestamp.valueOf(job.getStartedAt()), job.getExpectedRecords(),
+                    toTimestamp(job.getWatermarkFrom()), toTimestamp(job.getWatermarkTo()), jobId);
+            if (started == 0) {
+                log.info("Export job {} was cancelled before it started", jobId);
+                return;
+            }
 
             File exportDir = new File(EXPORT_DIR);
             if (!exportDir.exists()) {
@@ -93,73 +382,148 @@ public class AsyncExportService {
             }
 
             String timestamp = LocalDateTime.now().format(FILE_DATE_FORMAT);
-            String fileName;
-            List<Coupon> coupons;
-
-            if ("BATCH".equals(job.getExportType())) {
-                fileName = "batch_" + job.getBatchId() + "_" + timestamp + ".csv";
-                coupons = couponRepository.findAllByBatchId(job.getBatchId());
-            } else {
-                fileName = "all_coupons_" + timestamp + ".csv";
-                coupons = couponRepository.findAll();
+            String fileName = ("BATCH".equals(job.getExportType())
+                    ? "batch_" + job.getBatchId() + "_" + timestamp + ".csv"
+                    : "DELTA".equals(job.getExportType())
+                    ? "delta_" + timestamp + ".csv"
+                    : "all_coupons_" + timestamp + ".csv")
+                    + (isGzip(job) ? ".gz" : "");
+
+            filePath = EXPORT_DIR + "/" + fileName;
+            JobProgress progress = new JobProgress(jobId, job.getExpectedRecords());
+            CouponCsvExporter.Result result = writeCsvFile(filePath, job, progress);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Export cancelled");
             }
 
-            String filePath = EXPORT_DIR + "/" + fileName;
-            writeCsvFile(filePath, coupons);
-
-            job.setStatus(ExportStatus.COMPLETED);
-            job.setFileName(fileName);
-            job.setFilePath(filePath);
-            job.setTotalRecords((long) coupons.size());
-            job.setCompletedAt(LocalDateTime.now());
-            exportJobRepository.save(job);
+            job.setFileSizeBytes(new File(filePath).length());
+            int completed = jdbcTemplate.update(COMPLETE_SQL, fileName, filePath, result.getRows(), result.getBytes(),
+                    job.getFileSizeBytes(), result.getRows(), result.getBytes(), progress.rowsPerSecond(result.getRows()),
+                    Timestamp.valueOf(LocalDateTime.now()), jobId);
+            if (completed == 0) {
+                throw new CancellationException("Export job " + jobId + " is no longer processing");
+            }
 
-            log.info("Export job {} completed. File: {}, Records: {}", jobId, fileName, coupons.size());
+            log.info("Export job {} completed. File: {}, Records: {}, Size: {} bytes ({} uncompressed)",
+                    jobId, fileName, result.getRows(), job.getFileSizeBytes(), result.getBytes());
+            if ("DELTA".equals(job.getExportType())) {
+                log.info("Delta watermark advanced from {} to {}", job.getWatermarkFrom(), job.getWatermarkTo());
+            }
 
         } catch (Exception e) {
+            if (e instanceof CancellationException || Thread.currentThread().isInterrupted()) {
+                log.info("Export job {} stopped after cancellation or shutdown", jobId);
+                deletePartialFile(filePath);
+                return;
+            }
             log.error("Export job {} failed: {}", jobId, e.getMessage(), e);
-            job.setStatus(ExportStatus.FAILED);
-            job.setErrorMessage(e.getMessage());
-            job.setCompletedAt(LocalDateTime.now());
-            exportJobRepository.save(job);
+            deletePartialFile(filePath);
+            finish(jobId, ExportStatus.FAILED, e.getMessage());
         }
     }
 
-    private void writeCsvFile(String filePath, List<Coupon> coupons) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("Coupon Code,Status,Usage Count,Max Usages,Campaign,Batch ID,Start Date,Expiry Date,Transaction Number,Loyalty ID,Source,Redeemed At");
-            writer.newLine();
+    private void assignWatermarks(ExportJob job) {
+        LocalDateTime from = exportJobRepository
+                .findFirstByExportTypeAndStatusInOrderByWatermarkToDesc("DELTA",
+                        List.of(ExportStatus.COMPLETED, ExportStatus.EXPIRED))
+                .map(ExportJob::getWatermarkTo)
+                .orElse(null);
+        LocalDateTime to = currentDatabaseTime().minusSeconds(deltaLagSeconds);
+        job.setWatermarkFrom(from);
+        job.setWatermarkTo(from != null && to.isBefore(from) ? from : to);
+    }
+
+    private LocalDateTime currentDatabaseTime() {
+        String sql = databaseDialect == DatabaseDialect.ORACLE ? "SELECT LOCALTIMESTAMP FROM dual" : "SELECT LOCALTIMESTAMP";
+        return jdbcTemplate.queryForObject(sql, Timestamp.class).toLocalDateTime();
+    }
+
+    private boolean finish(Long jobId, ExportStatus status, String message) {
+        return jdbcTemplate.update(FINISH_SQL, status.name(), message, Timestamp.valueOf(LocalDateTime.now()), jobId) > 0;
+    }
 
-            for (Coupon coupon : coupons) {
-                CouponBatch batch = coupon.getBatch();
-                Campaign campaign = batch.getCampaign();
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
 
-                StringBuilder line = new StringBuilder();
-                line.append(coupon.getCode()).append(",");
-                line.append(coupon.getStatus()).append(",");
-                line.append(coupon.getUsageCount()).append(",");
-                line.append(campaign.getMaxUsages()).append(",");
-                line.append(escapeCSV(campaign.getName())).append(",");
-                line.append(batch.getId()).append(",");
-                line.append(campaign.getStartDate()).append(",");
-                line.append(campaign.getExpiryDate()).append(",");
-                line.append(coupon.getTransactionNumber() != null ? coupon.getTransactionNumber() : "").append(",");
-                line.append(coupon.getLoyaltyId() != null ? coupon.getLoyaltyId() : "").append(",");
-                line.append(coupon.getSource() != null ? coupon.getSource() : "").append(",");
-                line.append(coupon.getRedeemedAt() != null ? coupon.getRedeemedAt().toString() : "");
+    private void deletePartialFile(String filePath) {
+        if (filePath != null && new File(filePath).delete()) {
+            log.debug("Deleted partial export file {}", filePath);
+        }
+    }
 
-                writer.write(line.toString());
-                writer.newLine();
+    private CouponCsvExporter.Result writeCsvFile(String filePath, ExportJob job,
+                                                  CouponCsvExporter.ProgressListener progress) throws IOException {
+        if ("ALL".equals(job.getExportType()) && couponCsvExporter.isParallel()) {
+            return couponCsvExporter.exportAllParallel(CouponCsvExporter.Layout.JOB, Path.of(filePath), isGzip(job),
+                    progress);
+        }
+        OutputStream file = new FileOutputStream(filePath);
+        try (OutputStream out = isGzip(job) ? new GZIPOutputStream(file, GZIP_BUFFER_SIZE) : file) {
+            if ("BATCH".equals(job.getExportType())) {
+                CouponBatch batch = batchRepository.findByIdWithCampaign(job.getBatchId())
+                        .orElseThrow(() -> new RuntimeException("Batch not found: " + job.getBatchId()));
+                return couponCsvExporter.exportBatch(batch, CouponCsvExporter.Layout.JOB, out, progress);
+            }
+            if ("DELTA".equals(job.getExportType())) {
+                return couponCsvExporter.exportUpdatedBetween(CouponCsvExporter.Layout.JOB,
+                        job.getWatermarkFrom(), job.getWatermarkTo(), out, progress);
             }
+            return couponCsvExporter.exportAll(CouponCsvExporter.Layout.JOB, out, progress);
         }
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    private Long expectedRecords(ExportJob job) {
+        if ("BATCH".equals(job.getExportType())) {
+            return batchRepository.findById(job.getBatchId())
+                    .map(batch -> batch.getCouponCount().longValue())
+                    .orElse(null);
         }
-        return value;
+        if ("DELTA".equals(job.getExportType()) && job.getWatermarkFrom() != null) {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupon WHERE updated_at >= ? AND updated_at < ?",
+                    Long.class, Timestamp.valueOf(job.getWatermarkFrom()), Timestamp.valueOf(job.getWatermarkTo()));
+        }
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(coupon_count), 0) FROM coupon_batch", Long.class);
+    }
+
+    private class JobProgress implements CouponCsvExporter.ProgressListener {
+        private final Long jobId;
+        private final Long expectedRecords;
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong lastCheckpointNanos = new AtomicLong(startedNanos);
+
+        JobProgress(Long jobId, Long expectedRecords) {
+            this.jobId = jobId;
+            this.expectedRecords = expectedRecords;
+        }
+
+        @Override
+        public void onProgress(long rows, long bytes) {
+            long now = System.nanoTime();
+            long last = lastCheckpointNanos.get();
+            if (now - last < progressIntervalMs * 1_000_000L || !lastCheckpointNanos.compareAndSet(last, now)) {
+                return;
+            }
+
+            long rowsPerSecond = rowsPerSecond(rows);
+            LocalDateTime estimatedCompletion = null;
+            if (expectedRecords != null && rowsPerSecond > 0) {
+                estimatedCompletion = LocalDateTime.now().plusSeconds(Math.max(0, expectedRecords - rows) / rowsPerSecond);
+            }
+            int updated = jdbcTemplate.update(CHECKPOINT_SQL, rows, bytes, rowsPerSecond,
+                    estimatedCompletion != null ? Timestamp.valueOf(estimatedCompletion) : null, jobId);
+            if (updated == 0) {
+                throw new CancellationException("Export job " + jobId + " is no longer processing");
+            }
+        }
+
+        long rowsPerSecond(long rows) {
+            return rows * 1000 / Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        }
+    }
+
+    private boolean isGzip(ExportJob job) {
+        return job.getCompression() == ExportCompression.GZIP;
     }
 
     @Transactional(readOnly = true)
@@ -186,7 +550,15 @@ public class AsyncExportService {
     }
 
     @Transactional(readOnly = true)
-    public File getExportFile(Long jobId) {
+    public List<ExportJobDTO> getActiveJobs() {
+        return exportJobRepository.findByStatusInOrderByCreatedAtAsc(List.of(ExportStatus.PENDING, ExportStatus.PROCESSING))
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public ExportJob getCompletedJob(Long jobId) {
         ExportJob job = exportJobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Export job not found: " + jobId));
 
@@ -199,7 +571,7 @@ public class AsyncExportService {
             throw new RuntimeException("Export file not found: " + job.getFilePath());
         }
 
-        return file;
+        return job;
     }
 
     private ExportJobDTO toDTO(ExportJob job) {
@@ -211,6 +583,17 @@ public class AsyncExportService {
                 .status(job.getStatus())
                 .fileName(job.getFileName())
                 .totalRecords(job.getTotalRecords())
+                .compression(job.getCompression() != null ? job.getCompression() : ExportCompression.NONE)
+                .fileSizeBytes(job.getFileSizeBytes())
+                .uncompressedSizeBytes(job.getUncompressedSizeBytes())
+                .watermarkFrom(job.getWatermarkFrom())
+                .watermarkTo(job.getWatermarkTo())
+                .startedAt(job.getStartedAt())
+                .expectedRecords(job.getExpectedRecords())
+                .rowsWritten(job.getRowsWritten())
+                .bytesWritten(job.getBytesWritten())
+                .rowsPerSecond(job.getRowsPerSecond())
+                .estimatedCompletion(job.getEstimatedCompletion())
                 .errorMessage(job.getErrorMessage())
                 .createdAt(job.getCreatedAt())
                 .completedAt(job.getCompletedAt())
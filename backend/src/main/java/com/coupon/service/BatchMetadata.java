@@ -0,0 +1,40 @@
+package com.coupon.service;
+
+import com.coupon.entity.Campaign;
+import com.coupon.entity.CouponBatch;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class BatchMetadata {
+
+    private final Long batchId;
+    private final boolean batchActive;
+    private final Long campaignId;
+    private final String campaignName;
+    private final boolean campaignActive;
+    private final String posCode;
+    private final String atgCode;
+    private final Integer maxUsages;
+    private final LocalDate startDate;
+    private final LocalDate expiryDate;
+
+    public static BatchMetadata from(CouponBatch batch) {
+        Campaign campaign = batch.getCampaign();
+        return BatchMetadata.builder()
+                .batchId(batch.getId())
+                .batchActive(Boolean.TRUE.equals(batch.getActive()))
+                .campaignId(campaign.getId())
+                .campaignName(campaign.getName())
+                .campaignActive(Boolean.TRUE.equals(campaign.getActive()))
+                .posCode(campaign.getPosCode())
+                .atgCode(campaign.getAtgCode())
+                .maxUsages(campaign.getMaxUsages())
+                .startDate(campaign.getStartDate())
+                .expiryDate(campaign.getExpiryDate())
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.coupon.service;
+
+import com.coupon.repository.CouponBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchMetadataCache {
+
+    private final CouponBatchRepository batchRepository;
+
+    @Value("${coupon.batch-metadata-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${coupon.batch-metadata-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BatchMetadata get(Long batchId) {
+        long now = System.nanoTime();
+        Entry cached = entries.get(batchId);
+        if (cached != null) {
+            if (!cached.isExpired(now, ttlNanos())) {
+                hits.incrementAndGet();
+                return cached.metadata();
+            }
+            if (entries.remove(batchId, cached)) {
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        BatchMetadata loaded = batchRepository.findByIdWithCampaign(batchId)
+                .map(BatchMetadata::from)
+                .orElseThrow(() -> new RuntimeException("Batch not found with id: " + batchId));
+
+        if (generation.get() == loadGeneration) {
+            if (entries.size() >= maxSize) {
+                trim(now);
+            }
+            entries.put(batchId, new Entry(loaded, now));
+        }
+        return loaded;
+    }
+
+    public void evictBatch(Long batchId) {
+        invalidate(() -> {
+            if (entries.remove(batchId) != null) {
+                evictions.incrementAndGet();
+            }
+        });
+    }
+
+    public void evictCampaign(Long campaignId) {
+        invalidate(() -> entries.values().removeIf(entry -> {
+            boolean matches = campaignId.equals(entry.metadata().getCampaignId());
+            if (matches) {
+                evictions.incrementAndGet();
+            }
+            return matches;
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private void trim(long now) {
+        long ttl = ttlNanos();
+        entries.values().removeIf(entry -> {
+            boolean expired = entry.isExpired(now, ttl);
+            if (expired) {
+                expirations.incrementAndGet();
+            }
+            return expired;
+        });
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        int target = maxSize * 9 / 10;
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private long ttlNanos() {
+        return TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    private void invalidate(Runnable eviction) {
+        generation.incrementAndGet();
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record Entry(BatchMetadata metadata, long loadedAt) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAt >= ttlNanos;
+        }
+    }
+}
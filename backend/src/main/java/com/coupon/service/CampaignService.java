@@ -2,6 +2,8 @@ package com.coupon.service;
 
 import com.coupon.dto.CampaignDTO;
 import com.coupon.entity.Campaign;
+import com.coupon.entity.CodeFormat;
+import com.coupon.entity.GenerationMode;
 import com.coupon.repository.CampaignRepository;
 import com.coupon.repository.CouponBatchRepository;
 import com.coupon.repository.CouponRepository;
@@ -22,6 +24,9 @@ public class CampaignService {
     private final CampaignRepository campaignRepository;
     private final CouponBatchRepository batchRepository;
     private final CouponRepository couponRepository;
+    private final BatchMetadataCache batchMetadataCache;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponCodeValidator couponCodeValidator;
 
     private static final String PREFIX_START = "FF";
 
@@ -71,6 +76,8 @@ public class CampaignService {
                 .posCode(dto.getPosCode())
                 .atgCode(dto.getAtgCode())
                 .prefix(prefix)
+                .codeFormat(dto.getCodeFormat() != null ? dto.getCodeFormat() : CodeFormat.STANDARD)
+                .generationMode(dto.getGenerationMode() != null ? dto.getGenerationMode() : GenerationMode.RANDOM)
                 .maxUsages(dto.getMaxUsages())
                 .startDate(dto.getStartDate())
                 .expiryDate(dto.getExpiryDate())
@@ -78,6 +85,8 @@ public class CampaignService {
                 .build();
 
         Campaign saved = campaignRepository.save(campaign);
+        couponCodeFilter.registerPrefix(prefix, 0);
+        couponCodeValidator.register(prefix, saved.getCodeFormat());
         log.info("Created campaign: {} with id: {} and prefix: {}", saved.getName(), saved.getId(), prefix);
         return toDTO(saved);
     }
@@ -102,6 +111,10 @@ public class CampaignService {
             throw new RuntimeException("Coupon prefix '" + dto.getUserPrefix().toUpperCase() + "' is already in use. Please choose a different 4-character code.");
         }
 
+        if (!prefix.equals(campaign.getPrefix()) && batchRepository.existsByCampaignIdAndVirtualBatchTrue(id)) {
+            throw new RuntimeException("The prefix of a campaign with virtual batches cannot be changed");
+        }
+
         campaign.setName(dto.getName());
         campaign.setDescription(dto.getDescription());
         campaign.setPosCode(dto.getPosCode());
@@ -112,6 +125,9 @@ public class CampaignService {
         campaign.setExpiryDate(dto.getExpiryDate());
 
         Campaign saved = campaignRepository.save(campaign);
+        batchMetadataCache.evictCampaign(id);
+        couponCodeFilter.registerPrefix(prefix, 0);
+        couponCodeValidator.register(prefix, saved.getCodeFormat());
         log.info("Updated campaign: {} with id: {}", saved.getName(), saved.getId());
         return toDTO(saved);
     }
@@ -122,6 +138,7 @@ public class CampaignService {
                 .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + id));
         campaign.setActive(false);
         campaignRepository.save(campaign);
+        batchMetadataCache.evictCampaign(id);
         log.info("Soft deleted campaign with id: {}", id);
     }
 
@@ -131,6 +148,7 @@ public class CampaignService {
                 .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + id));
         campaign.setActive(true);
         campaignRepository.save(campaign);
+        batchMetadataCache.evictCampaign(id);
         log.info("Reactivated campaign with id: {}", id);
     }
 
@@ -155,6 +173,8 @@ public class CampaignService {
                 .atgCode(campaign.getAtgCode())
                 .prefix(campaign.getPrefix())
                 .userPrefix(userPrefix)
+                .codeFormat(campaign.getCodeFormat() != null ? campaign.getCodeFormat() : CodeFormat.STANDARD)
+                .generationMode(campaign.getGenerationMode() != null ? campaign.getGenerationMode() : GenerationMode.RANDOM)
                 .maxUsages(campaign.getMaxUsages())
                 .startDate(campaign.getStartDate())
                 .expiryDate(campaign.getExpiryDate())
@@ -0,0 +1,163 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.entity.Campaign;
+import com.coupon.entity.CodeFormat;
+import com.coupon.util.CheckCharacter;
+import com.coupon.util.FeistelPermutation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.sql.CallableStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CounterCodeGenerator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Value("${coupon.generation.permutation-key:}")
+    private String permutationKey;
+
+    private static final String ALPHABET = CheckCharacter.ALPHABET;
+    private static final int SERIAL_LENGTH = 8;
+
+    private static final String POSTGRES_RESERVE_SQL =
+            "UPDATE campaign SET code_counter = COALESCE(code_counter, 0) + ? WHERE id = ? RETURNING code_counter";
+
+    private static final String ORACLE_RESERVE_BLOCK =
+            "BEGIN UPDATE campaign SET code_counter = NVL(code_counter, 0) + ? WHERE id = ? " +
+            "RETURNING code_counter INTO ?; END;";
+
+    public Session open(Campaign campaign) {
+        int randomLength = campaign.getCodeFormat() == CodeFormat.CHECK_CHARACTER ? SERIAL_LENGTH - 1 : SERIAL_LENGTH;
+        FeistelPermutation permutation = new FeistelPermutation(keyFor(campaign.getPrefix()), domainSize(randomLength));
+        return new Session(campaign, permutation, randomLength);
+    }
+
+    private long reserve(Campaign campaign, int count, long domainSize) {
+        long end;
+        if (databaseDialect == DatabaseDialect.ORACLE) {
+            end = jdbcTemplate.execute(ORACLE_RESERVE_BLOCK, (CallableStatement cs) -> {
+                cs.setInt(1, count);
+                cs.setLong(2, campaign.getId());
+                cs.registerOutParameter(3, Types.BIGINT);
+                cs.execute();
+                return cs.getLong(3);
+            });
+        } else {
+            end = jdbcTemplate.queryForObject(POSTGRES_RESERVE_SQL, Long.class, count, campaign.getId());
+        }
+
+        if (end > domainSize) {
+            throw new RuntimeException("Code space exhausted for prefix " + campaign.getPrefix() +
+                    ": " + (end - count) + " of " + domainSize + " codes already issued");
+        }
+        return end - count;
+    }
+
+    private byte[] keyFor(String prefix) {
+        if (permutationKey == null || permutationKey.isBlank()) {
+            throw new RuntimeException("coupon.generation.permutation-key must be configured for PERMUTED_COUNTER campaigns");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(permutationKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Arrays.copyOf(mac.doFinal(prefix.getBytes(StandardCharsets.UTF_8)), 16);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static long domainSize(int length) {
+        long size = 1;
+        for (int i = 0; i < length; i++) {
+            size *= ALPHABET.length();
+        }
+        return size;
+    }
+
+    public class Session {
+
+        private final Campaign campaign;
+        private final FeistelPermutation permutation;
+        private final int randomLength;
+        private final boolean checkCharacter;
+
+        private Session(Campaign campaign, FeistelPermutation permutation, int randomLength) {
+            this.campaign = campaign;
+            this.permutation = permutation;
+            this.randomLength = randomLength;
+            this.checkCharacter = randomLength < SERIAL_LENGTH;
+        }
+
+        public long reserve(int count) {
+            return CounterCodeGenerator.this.reserve(campaign, count, permutation.getDomainSize());
+        }
+
+        public List<String> nextCodes(int count) {
+            long start = reserve(count);
+            List<String> codes = new ArrayList<>(count);
+            char[] buffer = newBuffer();
+            for (long counter = start; counter < start + count; counter++) {
+                codes.add(encode(buffer, permutation.permute(counter)));
+            }
+            return codes;
+        }
+
+        public String codeAt(long counter) {
+            return encode(newBuffer(), permutation.permute(counter));
+        }
+
+        public OptionalLong counterOf(String code) {
+            int offset = campaign.getPrefix().length();
+            if (code.length() != offset + SERIAL_LENGTH || !code.startsWith(campaign.getPrefix())) {
+                return OptionalLong.empty();
+            }
+            if (checkCharacter && !CheckCharacter.isValid(code)) {
+                return OptionalLong.empty();
+            }
+            long value = 0;
+            for (int i = offset; i < offset + randomLength; i++) {
+                int digit = ALPHABET.indexOf(code.charAt(i));
+                if (digit < 0) {
+                    return OptionalLong.empty();
+                }
+                value = value * ALPHABET.length() + digit;
+            }
+            return OptionalLong.of(permutation.invert(value));
+        }
+
+        private char[] newBuffer() {
+            char[] buffer = new char[campaign.getPrefix().length() + SERIAL_LENGTH];
+            campaign.getPrefix().getChars(0, campaign.getPrefix().length(), buffer, 0);
+            return buffer;
+        }
+
+        private String encode(char[] buffer, long value) {
+            int offset = campaign.getPrefix().length();
+            for (int i = offset + randomLength - 1; i >= offset; i--) {
+                buffer[i] = ALPHABET.charAt((int) (value % ALPHABET.length()));
+                value /= ALPHABET.length();
+            }
+            if (checkCharacter) {
+                buffer[offset + randomLength] = CheckCharacter.compute(buffer, offset + randomLength);
+            }
+            return new String(buffer);
+        }
+    }
+}
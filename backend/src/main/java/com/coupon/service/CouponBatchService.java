@@ -4,16 +4,20 @@ import com.coupon.dto.CouponBatchDTO;
 import com.coupon.entity.Campaign;
 import com.coupon.entity.CouponBatch;
 import com.coupon.entity.CouponStatus;
+import com.coupon.entity.GenerationJob;
 import com.coupon.repository.CampaignRepository;
 import com.coupon.repository.CouponBatchRepository;
 import com.coupon.repository.CouponRepository;
+import com.coupon.repository.GenerationJobRepository;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,23 +28,22 @@ public class CouponBatchService {
     private final CouponBatchRepository batchRepository;
     private final CampaignRepository campaignRepository;
     private final CouponRepository couponRepository;
-    private final CouponGeneratorService couponGeneratorService;
+    private final GenerationJobService generationJobService;
+    private final GenerationJobRepository generationJobRepository;
+    private final BatchMetadataCache batchMetadataCache;
+    private final VirtualBatchService virtualBatchService;
     private final EntityManager entityManager;
 
+    private static final int ID_CHUNK_SIZE = 1000;
+
     @Transactional(readOnly = true)
     public List<CouponBatchDTO> getAllBatches() {
-        return batchRepository.findAllWithCampaign()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(batchRepository.findAllWithCampaign());
     }
 
     @Transactional(readOnly = true)
     public List<CouponBatchDTO> getBatchesByCampaign(Long campaignId) {
-        return batchRepository.findByCampaignIdWithCampaign(campaignId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(batchRepository.findByCampaignIdWithCampaign(campaignId));
     }
 
     @Transactional(readOnly = true)
@@ -55,6 +58,10 @@ public class CouponBatchService {
         Campaign campaign = campaignRepository.findById(dto.getCampaignId())
                 .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + dto.getCampaignId()));
 
+        if (Boolean.TRUE.equals(dto.getVirtualBatch())) {
+            return toDTO(virtualBatchService.createVirtualBatch(campaign, dto.getCouponCount()));
+        }
+
         CouponBatch batch = CouponBatch.builder()
                 .campaign(campaign)
                 .couponCount(dto.getCouponCount())
@@ -65,10 +72,12 @@ public class CouponBatchService {
         entityManager.flush();
         log.info("Created batch {} for campaign {} with prefix {}", savedBatch.getId(), campaign.getName(), campaign.getPrefix());
 
-        int generated = couponGeneratorService.generateCoupons(savedBatch, dto.getCouponCount());
-        log.info("Generated {} coupons for batch {}", generated, savedBatch.getId());
+        GenerationJob job = generationJobService.submit(savedBatch);
 
-        return toDTO(savedBatch);
+        CouponBatchDTO created = toDTO(savedBatch);
+        created.setGenerationJobId(job.getId());
+        created.setGenerationStatus(job.getStatus());
+        return created;
     }
 
     @Transactional
@@ -79,6 +88,7 @@ public class CouponBatchService {
         batchRepository.save(batch);
         
         couponRepository.updateStatusByBatchId(id, CouponStatus.INACTIVE);
+        batchMetadataCache.evictBatch(id);
         log.info("Soft deleted batch {} and set all coupons to INACTIVE", id);
     }
 
@@ -90,13 +100,43 @@ public class CouponBatchService {
         batchRepository.save(batch);
         
         couponRepository.updateStatusByBatchId(id, CouponStatus.ACTIVE);
+        batchMetadataCache.evictBatch(id);
         log.info("Reactivated batch {} and set all coupons to ACTIVE", id);
     }
 
     private CouponBatchDTO toDTO(CouponBatch batch) {
-        Long activeCoupons = batchRepository.countActiveCouponsByBatchId(batch.getId());
-        Long usedCoupons = batchRepository.countUsedCouponsByBatchId(batch.getId());
-        Long expiredCoupons = batchRepository.countExpiredCouponsByBatchId(batch.getId());
+        return toDTOs(List.of(batch)).get(0);
+    }
+
+    private List<CouponBatchDTO> toDTOs(List<CouponBatch> batches) {
+        List<Long> batchIds = batches.stream().map(CouponBatch::getId).collect(Collectors.toList());
+        Map<Long, CouponBatchRepository.CouponCounts> countsByBatch = new HashMap<>();
+        Map<Long, GenerationJob> latestJobByBatch = new HashMap<>();
+        for (int from = 0; from < batchIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = batchIds.subList(from, Math.min(from + ID_CHUNK_SIZE, batchIds.size()));
+            for (CouponBatchRepository.CouponCounts counts : batchRepository.countCouponsByBatchIds(chunk)) {
+                countsByBatch.put(counts.getBatchId(), counts);
+            }
+            for (GenerationJob job : generationJobRepository.findLatestByBatchIdIn(chunk)) {
+                latestJobByBatch.merge(job.getBatchId(), job, (a, b) -> a.getId() > b.getId() ? a : b);
+            }
+        }
+
+        return batches.stream()
+                .map(batch -> toDTO(batch, countsByBatch.get(batch.getId()), latestJobByBatch.get(batch.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private CouponBatchDTO toDTO(CouponBatch batch, CouponBatchRepository.CouponCounts counts,
+                                 GenerationJob generationJob) {
+        long storedCoupons = counts != null ? counts.getStored() : 0L;
+        Long activeCoupons = counts != null ? counts.getActive() : 0L;
+        Long usedCoupons = counts != null ? counts.getUsed() : 0L;
+        Long expiredCoupons = counts != null ? counts.getExpired() : 0L;
+        boolean virtualBatch = Boolean.TRUE.equals(batch.getVirtualBatch());
+        if (virtualBatch && Boolean.TRUE.equals(batch.getActive())) {
+            activeCoupons += batch.getCouponCount() - storedCoupons;
+        }
 
         Campaign campaign = batch.getCampaign();
         String prefix = campaign.getPrefix() != null ? campaign.getPrefix() : "FFTEST";
@@ -113,9 +153,12 @@ public class CouponBatchService {
                 .createdAt(batch.getCreatedAt())
                 .updatedAt(batch.getUpdatedAt())
                 .active(batch.getActive())
+                .virtualBatch(virtualBatch)
                 .activeCoupons(activeCoupons)
                 .usedCoupons(usedCoupons)
                 .expiredCoupons(expiredCoupons)
+                .generationJobId(generationJob != null ? generationJob.getId() : null)
+                .generationStatus(generationJob != null ? generationJob.getStatus() : null)
                 .build();
     }
 }
@@ -0,0 +1,180 @@
+package com.coupon.service;
+
+import com.coupon.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponCodeFilter {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VirtualBatchService virtualBatchService;
+
+    @Value("${coupon.code-filter.enabled:false}")
+    private boolean enabled;
+
+    @Value("${coupon.code-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${coupon.code-filter.fetch-size:10000}")
+    private int fetchSize;
+
+    private static final int PREFIX_LENGTH = 6;
+    private static final int CODE_LENGTH = 14;
+    private static final long MIN_CAPACITY = 1024;
+
+    private final Map<String, PrefixFilter> filters = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            log.info("Coupon code filter is disabled");
+            return;
+        }
+        Thread loader = new Thread(this::rebuild, "coupon-code-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean mightExist(String normalizedCode) {
+        if (!ready) {
+            return true;
+        }
+        if (normalizedCode == null || normalizedCode.length() != CODE_LENGTH) {
+            return true;
+        }
+        String prefix = normalizedCode.substring(0, PREFIX_LENGTH);
+        if (virtualBatchService.hasVirtualBatches(prefix)) {
+            return true;
+        }
+        PrefixFilter filter = filters.get(prefix);
+        return filter != null && filter.mightContain(normalizedCode);
+    }
+
+    public void registerPrefix(String prefix, long expectedCodes) {
+        filters.computeIfAbsent(prefix, key -> new PrefixFilter(expectedCodes));
+    }
+
+    public void addAll(String prefix, Collection<String> codes) {
+        PrefixFilter filter = filters.computeIfAbsent(prefix, key -> new PrefixFilter(codes.size()));
+        for (String code : codes) {
+            filter.put(code);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long bytes = 0;
+        long codes = 0;
+        double worstFalsePositiveRate = 0;
+        for (PrefixFilter filter : filters.values()) {
+            bytes += filter.getSizeInBytes();
+            codes += filter.getInsertions();
+            worstFalsePositiveRate = Math.max(worstFalsePositiveRate, filter.getExpectedFalsePositiveRate());
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("prefixes", filters.size());
+        stats.put("codes", codes);
+        stats.put("memoryBytes", bytes);
+        stats.put("targetFalsePositiveRate", falsePositiveRate);
+        stats.put("maxExpectedFalsePositiveRate", worstFalsePositiveRate);
+        return stats;
+    }
+
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            jdbcTemplate.query(
+                    "SELECT c.prefix, COALESCE(SUM(b.coupon_count), 0) FROM campaign c " +
+                    "LEFT JOIN coupon_batch b ON b.campaign_id = c.id GROUP BY c.prefix",
+                    (RowCallbackHandler) rs -> registerPrefix(rs.getString(1), rs.getLong(2)));
+
+            JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+            streamingTemplate.setFetchSize(fetchSize);
+            long[] loaded = new long[1];
+            transactionTemplate.executeWithoutResult(status ->
+                    streamingTemplate.query("SELECT code FROM coupon", (RowCallbackHandler) rs -> {
+                        String code = rs.getString(1);
+                        filters.computeIfAbsent(code.substring(0, PREFIX_LENGTH), key -> new PrefixFilter(MIN_CAPACITY))
+                                .put(code);
+                        loaded[0]++;
+                    }));
+
+            ready = true;
+            log.info("Coupon code filter built with {} codes across {} prefixes in {} ms",
+                    loaded[0], filters.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("Failed to build coupon code filter; lookups will not be short-circuited: {}", e.getMessage(), e);
+        }
+    }
+
+    private class PrefixFilter {
+
+        private final List<BloomFilter> layers = new CopyOnWriteArrayList<>();
+
+        PrefixFilter(long expectedCodes) {
+            layers.add(new BloomFilter(Math.max(MIN_CAPACITY, expectedCodes), falsePositiveRate));
+        }
+
+        void put(String code) {
+            BloomFilter current = layers.get(layers.size() - 1);
+            if (current.isFull()) {
+                synchronized (this) {
+                    current = layers.get(layers.size() - 1);
+                    if (current.isFull()) {
+                        current = new BloomFilter(current.getCapacity() * 2, falsePositiveRate);
+                        layers.add(current);
+                    }
+                }
+            }
+            current.put(code);
+        }
+
+        boolean mightContain(String code) {
+            for (BloomFilter layer : layers) {
+                if (layer.mightContain(code)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long getSizeInBytes() {
+            return layers.stream().mapToLong(BloomFilter::getSizeInBytes).sum();
+        }
+
+        long getInsertions() {
+            return layers.stream().mapToLong(BloomFilter::getInsertions).sum();
+        }
+
+        double getExpectedFalsePositiveRate() {
+            double allNegative = 1;
+            for (BloomFilter layer : layers) {
+                allNegative *= 1 - layer.getExpectedFalsePositiveRate();
+            }
+            return 1 - allNegative;
+        }
+    }
+}
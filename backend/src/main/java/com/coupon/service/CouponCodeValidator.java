@@ -0,0 +1,57 @@
+package com.coupon.service;
+
+import com.coupon.entity.CodeFormat;
+import com.coupon.util.CheckCharacter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponCodeValidator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int PREFIX_LENGTH = 6;
+    private static final int CODE_LENGTH = 14;
+
+    private final Map<String, CodeFormat> formatsByPrefix = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFormats() {
+        try {
+            jdbcTemplate.query("SELECT prefix, code_format FROM campaign",
+                    (RowCallbackHandler) rs -> register(rs.getString(1), parse(rs.getString(2))));
+            log.info("Loaded code formats for {} campaign prefixes", formatsByPrefix.size());
+        } catch (Exception e) {
+            log.error("Failed to load campaign code formats; check characters will not be verified: {}", e.getMessage(), e);
+        }
+    }
+
+    public void register(String prefix, CodeFormat format) {
+        formatsByPrefix.put(prefix, format != null ? format : CodeFormat.STANDARD);
+    }
+
+    public boolean isWellFormed(String normalizedCode) {
+        if (normalizedCode == null || normalizedCode.length() < PREFIX_LENGTH) {
+            return true;
+        }
+        CodeFormat format = formatsByPrefix.get(normalizedCode.substring(0, PREFIX_LENGTH));
+        if (format != CodeFormat.CHECK_CHARACTER) {
+            return true;
+        }
+        return normalizedCode.length() == CODE_LENGTH && CheckCharacter.isValid(normalizedCode);
+    }
+
+    private CodeFormat parse(String value) {
+        return value != null ? CodeFormat.valueOf(value) : CodeFormat.STANDARD;
+    }
+}
@@ -0,0 +1,76 @@
+package com.coupon.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponCopyLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String CREATE_STAGE_SQL =
+            "CREATE TEMP TABLE IF NOT EXISTS coupon_stage (code VARCHAR(14) NOT NULL) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_SQL = "COPY coupon_stage (code) FROM STDIN";
+
+    private static final String MERGE_SQL =
+            "INSERT INTO coupon (id, batch_id, code, status, usage_count, created_at, updated_at) " +
+            "SELECT nextval('coupon_seq'), ?, code, 'ACTIVE', 0, ?, ? FROM coupon_stage " +
+            "ON CONFLICT (code) DO NOTHING";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public int load(long batchId, List<String> codes, Timestamp now) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGE_SQL);
+                statement.execute("TRUNCATE coupon_stage");
+            }
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            CopyIn copyIn = copyManager.copyIn(COPY_SQL);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int position = 0;
+                for (String code : codes) {
+                    if (position + code.length() + 1 > buffer.length) {
+                        copyIn.writeToCopy(buffer, 0, position);
+                        position = 0;
+                    }
+                    for (int i = 0; i < code.length(); i++) {
+                        buffer[position++] = (byte) code.charAt(i);
+                    }
+                    buffer[position++] = '\n';
+                }
+                if (position > 0) {
+                    copyIn.writeToCopy(buffer, 0, position);
+                }
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            try (PreparedStatement merge = connection.prepareStatement(MERGE_SQL)) {
+                merge.setLong(1, batchId);
+                merge.setTimestamp(2, now);
+                merge.setTimestamp(3, now);
+                return merge.executeUpdate();
+            }
+        });
+    }
+}
@@ -0,0 +1,407 @@
+package com.coupon.service;
+
+import com.coupon.entity.Campaign;
+import com.coupon.entity.CouponBatch;
+import com.coupon.repository.CouponBatchRepository;
+import com.coupon.util.CsvByteWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponCsvExporter {
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final CouponBatchRepository batchRepository;
+    private final VirtualBatchService virtualBatchService;
+
+    @Value("${coupon.export.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${coupon.export.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${coupon.export.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${coupon.export.parallel-partitions:4}")
+    private int parallelPartitions;
+
+    @Value("${coupon.export.parallel-connections:4}")
+    private int parallelConnections;
+
+    private static final int FLUSH_CHECK_ROWS = 1024;
+
+    private static final String SELECT_SQL =
+            "SELECT code, status, usage_count, batch_id, transaction_number, loyalty_id, source, redeemed_at, created_at " +
+            "FROM coupon";
+
+    private ExecutorService partitionExecutor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        partitionExecutor = Executors.newFixedThreadPool(Math.max(1, parallelConnections), runnable -> {
+            Thread thread = new Thread(runnable, "export-partition-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        partitionExecutor.shutdownNow();
+    }
+
+    public enum Layout {
+        DOWNLOAD("Coupon Code,Status,Usage Count,Max Usages,Start Date,Expiry Date,Campaign,Batch ID,POS Code,ATG Code,Created At"),
+        JOB("Coupon Code,Status,Usage Count,Max Usages,Campaign,Batch ID,Start Date,Expiry Date,Transaction Number,Loyalty ID,Source,Redeemed At");
+
+        private final byte[] header;
+
+        Layout(String header) {
+            this.header = (header + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public Result exportBatch(CouponBatch batch, Layout layout, OutputStream out, ProgressListener progress)
+            throws IOException {
+        Map<Long, byte[]> batchColumns = new HashMap<>();
+        batchColumns.put(batch.getId(), encodeBatchColumns(batch, layout));
+
+        if (Boolean.TRUE.equals(batch.getVirtualBatch())) {
+            return export(layout, out, writer -> writeVirtualBatches(writer, layout, batchColumns, List.of(batch), progress));
+        }
+        return export(layout, out, writer -> query(writer, layout, batchColumns, Set.of(), progress,
+                SELECT_SQL + " WHERE batch_id = ?", batch.getId()));
+    }
+
+    public Result exportAll(Layout layout, OutputStream out, ProgressListener progress) throws IOException {
+        Map<Long, byte[]> batchColumns = new HashMap<>();
+        List<CouponBatch> virtualBatches = new ArrayList<>();
+        loadBatches(layout, batchColumns, virtualBatches);
+        Set<Long> virtualBatchIds = idsOf(virtualBatches);
+        return export(layout, out, writer -> {
+            query(writer, layout, batchColumns, virtualBatchIds, progress, SELECT_SQL);
+            writeVirtualBatches(writer, layout, batchColumns, virtualBatches, progress);
+        });
+    }
+
+    public Result exportUpdatedBetween(Layout layout, LocalDateTime from, LocalDateTime to, OutputStream out,
+                                       ProgressListener progress) throws IOException {
+        Map<Long, byte[]> batchColumns = new HashMap<>();
+        if (from == null) {
+            return export(layout, out, writer -> query(writer, layout, batchColumns, Set.of(), progress,
+                    SELECT_SQL + " WHERE updated_at < ?", Timestamp.valueOf(to)));
+        }
+        return export(layout, out, writer -> query(writer, layout, batchColumns, Set.of(), progress,
+                SELECT_SQL + " WHERE updated_at >= ? AND updated_at < ?", Timestamp.valueOf(from), Timestamp.valueOf(to)));
+    }
+
+    public boolean isParallel() {
+        return parallelPartitions > 1;
+    }
+
+    public Result exportAllParallel(Layout layout, Path target, boolean gzip, ProgressListener progress)
+            throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Map<Long, byte[]> batchColumns = new ConcurrentHashMap<>();
+        List<CouponBatch> virtualBatches = new ArrayList<>();
+        loadBatches(layout, batchColumns, virtualBatches);
+        Set<Long> virtualBatchIds = idsOf(virtualBatches);
+
+        Map<String, Object> bounds = new JdbcTemplate(dataSource).queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM coupon");
+        byte[] header = gzip ? gzip(layout.header) : layout.header;
+        boolean storedRows = bounds.get("min_id") != null;
+        if (!storedRows && virtualBatches.isEmpty()) {
+            Files.write(target, header);
+            return new Result(0, layout.header.length);
+        }
+        long minId = storedRows ? ((Number) bounds.get("min_id")).longValue() : 0;
+        long maxId = storedRows ? ((Number) bounds.get("max_id")).longValue() : -1;
+        long span = (maxId - minId) / parallelPartitions + 1;
+
+        AtomicLong totalRows = new AtomicLong();
+        AtomicLong totalBytes = new AtomicLong(layout.header.length);
+        List<Path> parts = new ArrayList<>();
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; storedRows && i < parallelPartitions; i++) {
+                long fromId = minId + i * span;
+                long toId = Math.min(fromId + span, maxId + 1);
+                Path part = target.resolveSibling(target.getFileName() + ".part" + i);
+                parts.add(part);
+                ProgressListener partitionProgress = new PartitionProgress(totalRows, totalBytes, progress);
+                futures.add(partitionExecutor.submit(() -> exportPart(part, gzip, writer -> query(writer, layout,
+                        batchColumns, virtualBatchIds, partitionProgress, SELECT_SQL + " WHERE id >= ? AND id < ?",
+                        fromId, toId))));
+            }
+            if (!virtualBatches.isEmpty()) {
+                Path part = target.resolveSibling(target.getFileName() + ".virtual");
+                parts.add(part);
+                ProgressListener partitionProgress = new PartitionProgress(totalRows, totalBytes, progress);
+                futures.add(partitionExecutor.submit(() -> exportPart(part, gzip, writer ->
+                        writeVirtualBatches(writer, layout, batchColumns, virtualBatches, partitionProgress))));
+            }
+
+            long rows = 0;
+            long uncompressedBytes = layout.header.length;
+            for (Future<Result> future : futures) {
+                Result result = future.get();
+                rows += result.getRows();
+                uncompressedBytes += result.getBytes();
+            }
+
+            long bytes = 0;
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(header));
+                for (Path part : parts) {
+                    try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        for (long position = 0; position < size; ) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+                bytes = out.size();
+            }
+
+            long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+            log.info("Exported {} coupons ({} bytes) from {} partitions in {} ms ({} rows/sec)",
+                    rows, bytes, parts.size(), elapsed, rows * 1000 / elapsed);
+            return new Result(rows, uncompressedBytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Export cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Export partition failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    private Result exportPart(Path part, boolean gzip, RowSource source) throws IOException {
+        OutputStream file = Files.newOutputStream(part);
+        try (OutputStream out = gzip ? new GZIPOutputStream(file, bufferSize) : file) {
+            CsvByteWriter writer = new CsvByteWriter(out, bufferSize);
+            source.writeRows(writer);
+            writer.flush();
+            return new Result(writer.getRowsWritten(), writer.getBytesWritten());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private Result export(Layout layout, OutputStream out, RowSource source) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        CsvByteWriter writer = new CsvByteWriter(out, bufferSize);
+        try {
+            out.write(layout.header);
+            source.writeRows(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        long rows = writer.getRowsWritten();
+        log.info("Exported {} coupons ({} bytes) in {} ms ({} rows/sec, {} MB/sec)", rows, writer.getBytesWritten(),
+                elapsed, rows * 1000 / elapsed, String.format("%.1f", writer.getBytesWritten() / 1000.0 / elapsed));
+        return new Result(rows, layout.header.length + writer.getBytesWritten());
+    }
+
+    private void query(CsvByteWriter writer, Layout layout, Map<Long, byte[]> batchColumns, Set<Long> skipBatchIds,
+                       ProgressListener progress, String sql, Object... args) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        transactionTemplate.executeWithoutResult(status ->
+                streamingTemplate.query(sql, (RowCallbackHandler) rs -> {
+                    long batchId = rs.getLong(4);
+                    if (!skipBatchIds.contains(batchId)) {
+                        writeRow(writer, layout, batchColumns.computeIfAbsent(batchId, id -> loadBatchColumns(id, layout)),
+                                progress, rs);
+                    }
+                }, args));
+    }
+
+    private void writeVirtualBatches(CsvByteWriter writer, Layout layout, Map<Long, byte[]> batchColumns,
+                                     List<CouponBatch> batches, ProgressListener progress) {
+        for (CouponBatch batch : batches) {
+            byte[] columns = batchColumns.get(batch.getId());
+            virtualBatchService.forEachCoupon(batch, coupon -> writeRow(writer, layout, columns, progress,
+                    coupon.getCode(), coupon.getStatus().name(), coupon.getUsageCount(), coupon.getTransactionNumber(),
+                    coupon.getLoyaltyId(), coupon.getSource(), coupon.getRedeemedAt(), coupon.getCreatedAt()));
+        }
+    }
+
+    private void loadBatches(Layout layout, Map<Long, byte[]> batchColumns, List<CouponBatch> virtualBatches) {
+        for (CouponBatch batch : batchRepository.findAllWithCampaign()) {
+            batchColumns.put(batch.getId(), encodeBatchColumns(batch, layout));
+            if (Boolean.TRUE.equals(batch.getVirtualBatch())) {
+                virtualBatches.add(batch);
+            }
+        }
+    }
+
+    private static Set<Long> idsOf(List<CouponBatch> batches) {
+        Set<Long> ids = new HashSet<>();
+        for (CouponBatch batch : batches) {
+            ids.add(batch.getId());
+        }
+        return ids;
+    }
+
+    private void writeRow(CsvByteWriter writer, Layout layout, byte[] batchColumns, ProgressListener progress,
+                          ResultSet rs) throws SQLException {
+        writeRow(writer, layout, batchColumns, progress, rs.getString(1), rs.getString(2), rs.getInt(3), rs.getString(5),
+                rs.getString(6), rs.getString(7), toLocalDateTime(rs.getTimestamp(8)), toLocalDateTime(rs.getTimestamp(9)));
+    }
+
+    private void writeRow(CsvByteWriter writer, Layout layout, byte[] batchColumns, ProgressListener progress,
+                          String code, String status,
+                          int usageCount, String transactionNumber, String loyaltyId, String source,
+                          LocalDateTime redeemedAt, LocalDateTime createdAt) {
+        try {
+            writer.field(code).field(status).field(usageCount).encoded(batchColumns);
+            if (layout == Layout.JOB) {
+                writer.field(transactionNumber).field(loyaltyId).field(source).field(redeemedAt);
+            } else {
+                writer.field(createdAt);
+            }
+            writer.endRow();
+            if (writer.getRowsWritten() % FLUSH_CHECK_ROWS == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Export cancelled");
+                }
+                writer.flushIfIdle(flushIntervalMs);
+                progress.onProgress(writer.getRowsWritten(), writer.getBytesWritten());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] loadBatchColumns(Long batchId, Layout layout) {
+        CouponBatch batch = batchRepository.findByIdWithCampaign(batchId)
+                .orElseThrow(() -> new RuntimeException("Batch not found: " + batchId));
+        return encodeBatchColumns(batch, layout);
+    }
+
+    private byte[] encodeBatchColumns(CouponBatch batch, Layout layout) {
+        Campaign campaign = batch.getCampaign();
+        String maxUsages = String.valueOf(campaign.getMaxUsages());
+        String startDate = String.valueOf(campaign.getStartDate());
+        String expiryDate = String.valueOf(campaign.getExpiryDate());
+        String batchId = String.valueOf(batch.getId());
+        if (layout == Layout.JOB) {
+            return CsvByteWriter.encodeFields(maxUsages, campaign.getName(), batchId, startDate, expiryDate);
+        }
+        return CsvByteWriter.encodeFields(maxUsages, startDate, expiryDate, campaign.getName(), batchId,
+                campaign.getPosCode() != null ? campaign.getPosCode() : "",
+                campaign.getAtgCode() != null ? campaign.getAtgCode() : "");
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final long rows;
+        private final long bytes;
+    }
+
+    public interface ProgressListener {
+        ProgressListener NONE = (rows, bytes) -> { };
+
+        void onProgress(long rows, long bytes);
+    }
+
+    private static class PartitionProgress implements ProgressListener {
+        private final AtomicLong totalRows;
+        private final AtomicLong totalBytes;
+        private final ProgressListener delegate;
+        private long reportedRows;
+        private long reportedBytes;
+
+        PartitionProgress(AtomicLong totalRows, AtomicLong totalBytes, ProgressListener delegate) {
+            this.totalRows = totalRows;
+            this.totalBytes = totalBytes;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onProgress(long rows, long bytes) {
+            long allRows = totalRows.addAndGet(rows - reportedRows);
+            long allBytes = totalBytes.addAndGet(bytes - reportedBytes);
+            reportedRows = rows;
+            reportedBytes = bytes;
+            delegate.onProgress(allRows, allBytes);
+        }
+    }
+
+    private interface RowSource {
+        void writeRows(CsvByteWriter writer);
+    }
+}
@@ -0,0 +1,8 @@
+package com.coupon.service;
+
+public class CouponNotFoundException extends RuntimeException {
+
+    public CouponNotFoundException(String code) {
+        super("Coupon not found: " + code, null, false, false);
+    }
+}
@@ -1,5 +1,6 @@
 package com.coupon.service;
 
+import com.coupon.config.DatabaseDialect;
 import com.coupon.dto.CouponDTO;
 import com.coupon.dto.CouponSearchDTO;
 import com.coupon.dto.PagedResponseDTO;
@@ -12,20 +13,31 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,6 +46,12 @@ import java.util.stream.Collectors;
 public class CouponService {
 
     private final CouponRepository couponRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    private static final String CODE_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final Pattern ALPHANUMERIC = Pattern.compile("[0-9A-Z]+");
+    private static final int MIN_TEXT_SEARCH_LENGTH = 3;
 
     @Transactional(readOnly = true)
     public PagedResponseDTO<CouponDTO> searchCoupons(CouponSearchDTO searchDTO) {
@@ -41,7 +59,12 @@ public class CouponService {
         int size = searchDTO.getSize() != null ? searchDTO.getSize() : 20;
         size = Math.min(size, 100);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        if (Boolean.TRUE.equals(searchDTO.getKeyset()) || searchDTO.getCursor() != null) {
+            return searchCouponsByCursor(searchDTO, size);
+        }
+
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
         Specification<Coupon> spec = buildSpecification(searchDTO);
         
         Page<Coupon> couponPage = couponRepository.findAll(spec, pageable);
@@ -62,6 +85,210 @@ public class CouponService {
                 .build();
     }
 
+    private PagedResponseDTO<CouponDTO> searchCouponsByCursor(CouponSearchDTO searchDTO, int size) {
+        Cursor cursor = Cursor.decode(searchDTO.getCursor());
+        List<Coupon> coupons = seek(searchDTO, cursor, size + 1);
+        boolean more = coupons.size() > size;
+        if (more) {
+            coupons = coupons.subList(0, size);
+        }
+
+        boolean hasPrevious;
+        boolean hasNext;
+        if (cursor == null) {
+            hasPrevious = false;
+            hasNext = more;
+        } else if (cursor.backward()) {
+            if (coupons.size() < size) {
+                return searchCouponsByCursor(withCursor(searchDTO, null), size);
+            }
+            Collections.reverse(coupons);
+            hasPrevious = more;
+            hasNext = true;
+        } else {
+            hasPrevious = true;
+            hasNext = more;
+        }
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (Boolean.TRUE.equals(searchDTO.getIncludeTotal())) {
+            totalElements = couponRepository.count(buildSpecification(searchDTO));
+            totalPages = (int) ((totalElements + size - 1) / size);
+        }
+
+        List<CouponDTO> content = coupons.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+
+        return PagedResponseDTO.<CouponDTO>builder()
+                .content(content)
+                .page(0)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(!hasPrevious)
+                .last(!hasNext)
+                .nextCursor(hasNext && !coupons.isEmpty() ? Cursor.after(coupons.get(coupons.size() - 1)).encode() : null)
+                .prevCursor(hasPrevious && !coupons.isEmpty() ? Cursor.before(coupons.get(0)).encode() : null)
+                .build();
+    }
+
+    private List<Coupon> seek(CouponSearchDTO searchDTO, Cursor cursor, int limit) {
+        List<Object> args = new ArrayList<>();
+        List<Long> ids = jdbcTemplate.queryForList(seekSql(searchDTO, cursor, limit, args), Long.class, args.toArray());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Coupon> byId = new HashMap<>();
+        for (Coupon coupon : couponRepository.findAllWithBatchAndCampaignByIdIn(ids)) {
+            byId.put(coupon.getId(), coupon);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    String seekSql(CouponSearchDTO searchDTO, Cursor cursor, int limit, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT c.id FROM coupon c WHERE 1 = 1");
+        appendFilters(sql, args, searchDTO);
+
+        String direction = "DESC";
+        if (cursor != null) {
+            String operator = cursor.backward() ? ">" : "<";
+            if (databaseDialect == DatabaseDialect.ORACLE) {
+                sql.append(" AND c.created_at ").append(operator).append("= ? AND (c.created_at ").append(operator)
+                        .append(" ? OR (c.created_at = ? AND c.id ").append(operator).append(" ?))");
+                args.addAll(List.of(cursor.createdAt(), cursor.createdAt(), cursor.createdAt(), cursor.id()));
+            } else {
+                sql.append(" AND (c.created_at, c.id) ").append(operator).append(" (?, ?)");
+                args.addAll(List.of(cursor.createdAt(), cursor.id()));
+            }
+            if (cursor.backward()) {
+                direction = "ASC";
+            }
+        }
+        sql.append(" ORDER BY c.created_at ").append(direction).append(", c.id ").append(direction)
+                .append(" FETCH FIRST ").append(limit).append(" ROWS ONLY");
+        return sql.toString();
+    }
+
+    void appendFilters(StringBuilder sql, List<Object> args, CouponSearchDTO searchDTO) {
+        if (searchDTO.getCode() != null && !searchDTO.getCode().isEmpty()) {
+            String code = searchDTO.getCode().toUpperCase();
+            sql.append(useOracleText(code) ? " AND CONTAINS(c.code, ?) > 0" : " AND c.code LIKE ? ESCAPE '\\'");
+            args.add("%" + (useOracleText(code) ? code : escapeLike(code)) + "%");
+        }
+
+        if (searchDTO.getPrefix() != null && !searchDTO.getPrefix().isEmpty()) {
+            String prefix = searchDTO.getPrefix().toUpperCase();
+            if (ALPHANUMERIC.matcher(prefix).matches()) {
+                sql.append(" AND c.code >= ?");
+                args.add(prefix);
+                String upperBound = prefixUpperBound(prefix);
+                if (upperBound != null) {
+                    sql.append(" AND c.code < ?");
+                    args.add(upperBound);
+                }
+            } else {
+                sql.append(" AND c.code LIKE ? ESCAPE '\\'");
+                args.add(escapeLike(prefix) + "%");
+            }
+        }
+
+        if (searchDTO.getStatus() != null) {
+            sql.append(" AND c.status = ?");
+            args.add(searchDTO.getStatus().name());
+        }
+
+        if (searchDTO.getBatchId() != null) {
+            sql.append(" AND c.batch_id = ?");
+            args.add(searchDTO.getBatchId());
+        }
+
+        if (searchDTO.getCampaignId() != null) {
+            sql.append(" AND c.batch_id IN (SELECT b.id FROM coupon_batch b WHERE b.campaign_id = ?)");
+            args.add(searchDTO.getCampaignId());
+        }
+
+        if (searchDTO.getCreatedFrom() != null) {
+            sql.append(" AND c.created_at >= ?");
+            args.add(Timestamp.valueOf(searchDTO.getCreatedFrom().atStartOfDay()));
+        }
+
+        if (searchDTO.getCreatedTo() != null) {
+            sql.append(" AND c.created_at <= ?");
+            args.add(Timestamp.valueOf(searchDTO.getCreatedTo().atTime(LocalTime.MAX)));
+        }
+    }
+
+    private boolean useOracleText(String code) {
+        // Oracle Text expands %X% against every indexed substring; one or two characters blow past the
+        // wildcard expansion limit (DRG-51030), so short input stays on LIKE.
+        return databaseDialect == DatabaseDialect.ORACLE && code.length() >= MIN_TEXT_SEARCH_LENGTH
+                && ALPHANUMERIC.matcher(code).matches();
+    }
+
+    private static String prefixUpperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            int position = CODE_ALPHABET.indexOf(prefix.charAt(i));
+            if (position < CODE_ALPHABET.length() - 1) {
+                return prefix.substring(0, i) + CODE_ALPHABET.charAt(position + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static CouponSearchDTO withCursor(CouponSearchDTO searchDTO, String cursor) {
+        return CouponSearchDTO.builder()
+                .code(searchDTO.getCode())
+                .prefix(searchDTO.getPrefix())
+                .status(searchDTO.getStatus())
+                .campaignId(searchDTO.getCampaignId())
+                .batchId(searchDTO.getBatchId())
+                .createdFrom(searchDTO.getCreatedFrom())
+                .createdTo(searchDTO.getCreatedTo())
+                .size(searchDTO.getSize())
+                .keyset(true)
+                .cursor(cursor)
+                .includeTotal(searchDTO.getIncludeTotal())
+                .build();
+    }
+
+    record Cursor(boolean backward, Timestamp createdAt, long id) {
+
+        static Cursor after(Coupon coupon) {
+            return new Cursor(false, Timestamp.valueOf(coupon.getCreatedAt()), coupon.getId());
+        }
+
+        static Cursor before(Coupon coupon) {
+            return new Cursor(true, Timestamp.valueOf(coupon.getCreatedAt()), coupon.getId());
+        }
+
+        String encode() {
+            String value = (backward ? "p" : "n") + "|" + createdAt.toLocalDateTime() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            if (token == null || token.isEmpty()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor("p".equals(parts[0]), Timestamp.valueOf(LocalDateTime.parse(parts[1])),
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid search cursor");
+            }
+        }
+    }
+
     @Transactional(readOnly = true)
     public CouponDTO getCouponByCode(String code) {
         Coupon coupon = couponRepository.findByCodeWithBatchAndCampaign(code)
@@ -69,6 +296,24 @@ public class CouponService {
         return toDTO(coupon);
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkCodeSearchIndex() {
+        if (databaseDialect != DatabaseDialect.POSTGRESQL) {
+            return;
+        }
+        try {
+            Integer found = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'coupon' AND indexname = 'coupon_code_trgm_idx'",
+                    Integer.class);
+            if (found == null || found == 0) {
+                log.warn("Index coupon_code_trgm_idx is missing; coupon code substring searches will scan the whole " +
+                        "coupon table. Create it from schema-postgresql.sql.");
+            }
+        } catch (Exception e) {
+            log.warn("Could not check for coupon_code_trgm_idx: {}", e.getMessage());
+        }
+    }
+
     @Scheduled(cron = "0 0 0 * * ?")
     @Transactional
     public void expireOldCoupons() {
@@ -86,13 +331,26 @@ public class CouponService {
             Join<Coupon, CouponBatch> batchJoin = root.join("batch");
 
             if (searchDTO.getCode() != null && !searchDTO.getCode().isEmpty()) {
-                predicates.add(cb.like(cb.upper(root.get("code")), 
-                        "%" + searchDTO.getCode().toUpperCase() + "%"));
+                String code = searchDTO.getCode().toUpperCase();
+                if (useOracleText(code)) {
+                    predicates.add(cb.greaterThan(cb.function("CONTAINS", Integer.class, root.get("code"),
+                            cb.literal("%" + code + "%")), 0));
+                } else {
+                    predicates.add(cb.like(root.get("code"), "%" + escapeLike(code) + "%", '\\'));
+                }
             }
 
             if (searchDTO.getPrefix() != null && !searchDTO.getPrefix().isEmpty()) {
-                predicates.add(cb.like(cb.upper(root.get("code")), 
-                        searchDTO.getPrefix().toUpperCase() + "%"));
+                String prefix = searchDTO.getPrefix().toUpperCase();
+                if (ALPHANUMERIC.matcher(prefix).matches()) {
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("code"), prefix));
+                    String upperBound = prefixUpperBound(prefix);
+                    if (upperBound != null) {
+                        predicates.add(cb.lessThan(root.get("code"), upperBound));
+                    }
+                } else {
+                    predicates.add(cb.like(root.get("code"), escapeLike(prefix) + "%", '\\'));
+                }
             }
 
             if (searchDTO.getStatus() != null) {
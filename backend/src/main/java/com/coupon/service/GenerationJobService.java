@@ -0,0 +1,255 @@
+package com.coupon.service;
+
+import com.coupon.dto.GenerationJobDTO;
+import com.coupon.entity.CouponBatch;
+import com.coupon.entity.GenerationJob;
+import com.coupon.entity.GenerationStatus;
+import com.coupon.repository.CouponBatchRepository;
+import com.coupon.repository.GenerationJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationJobService {
+
+    private final GenerationJobRepository generationJobRepository;
+    private final CouponBatchRepository batchRepository;
+    private final CouponGeneratorService couponGeneratorService;
+    private final GenerationPipeline generationPipeline;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${coupon.generation.job-threads:2}")
+    private int jobThreads;
+
+    @Value("${coupon.generation.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private ExecutorService executor;
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(jobThreads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-generation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public GenerationJob submit(CouponBatch batch) {
+        GenerationJob job = GenerationJob.builder()
+                .batchId(batch.getId())
+                .campaignId(batch.getCampaign().getId())
+                .requestedCount(batch.getCouponCount())
+                .status(GenerationStatus.PENDING)
+                .build();
+
+        GenerationJob saved = generationJobRepository.save(job);
+        Long jobId = saved.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(jobId);
+            }
+        });
+        log.info("Created generation job {} for batch {} with {} coupons", jobId, batch.getId(), batch.getCouponCount());
+        return saved;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        dispatchUnfinishedJobs();
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.generation.resume-interval-ms:60000}",
+            initialDelayString = "${coupon.generation.resume-interval-ms:60000}")
+    public void dispatchUnfinishedJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(leaseSeconds);
+        List<GenerationJob> unfinished = generationJobRepository.findByStatusInOrderByCreatedAtAsc(
+                List.of(GenerationStatus.PENDING, GenerationStatus.PROCESSING));
+        for (GenerationJob job : unfinished) {
+            boolean claimable = job.getStatus() == GenerationStatus.PENDING
+                    || job.getCheckpointAt() == null || job.getCheckpointAt().isBefore(staleBefore);
+            if (claimable && !dispatched.contains(job.getId())) {
+                log.info("Resuming generation job {} for batch {} at {} / {} coupons",
+                        job.getId(), job.getBatchId(), job.getGeneratedCount(), job.getRequestedCount());
+                dispatch(job.getId());
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public GenerationJobDTO getJob(Long jobId) {
+        GenerationJob job = generationJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Generation job not found: " + jobId));
+        return toDTO(job);
+    }
+
+    @Transactional(readOnly = true)
+    public GenerationJobDTO getLatestJobForBatch(Long batchId) {
+        GenerationJob job = generationJobRepository.findFirstByBatchIdOrderByCreatedAtDesc(batchId)
+                .orElseThrow(() -> new RuntimeException("No generation job found for batch: " + batchId));
+        return toDTO(job);
+    }
+
+    @Transactional(readOnly = true)
+    public List<GenerationJobDTO> getAllJobs() {
+        return generationJobRepository.findAllByOrderByCreatedAtDesc()
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private void dispatch(Long jobId) {
+        if (dispatched.add(jobId)) {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    dispatched.remove(jobId);
+                }
+            });
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            GenerationJob job = claim(jobId);
+            if (job == null) {
+                log.info("Generation job {} is finished or running on another node; skipping", jobId);
+                return;
+            }
+            CouponBatch batch = batchRepository.findByIdWithCampaign(job.getBatchId())
+                    .orElseThrow(() -> new RuntimeException("Batch not found with id: " + job.getBatchId()));
+
+            int requested = job.getRequestedCount();
+            int generated = job.getGeneratedCount();
+            long startedAt = System.currentTimeMillis();
+
+            while (generated < requested) {
+                int inserted = generationPipeline.run(jobId, batch, requested - generated);
+                if (inserted == 0) {
+                    throw new RuntimeException("Could not generate any unique codes after " + generated + " coupons");
+                }
+                generated += inserted;
+                log.info("Generation job {} progress: {} / {} coupons ({}%)",
+                        jobId, generated, requested, (generated * 100L) / requested);
+            }
+
+            markCompleted(jobId);
+            long elapsedMs = Math.max(1, System.currentTimeMillis() - startedAt);
+            int generatedThisRun = generated - job.getGeneratedCount();
+            log.info("Generation job {} completed for batch {}: {} coupons, {} this run in {} ms ({} rows/sec, {} loader)",
+                    jobId, batch.getId(), generated, generatedThisRun, elapsedMs,
+                    generatedThisRun * 1000L / elapsedMs, couponGeneratorService.getLoaderName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Generation job {} stopped; it will resume on restart", jobId);
+        } catch (Exception e) {
+            log.error("Generation job {} failed: {}", jobId, e.getMessage(), e);
+            markFailed(jobId, e.getMessage());
+        }
+    }
+
+    private GenerationJob claim(Long jobId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (generationJobRepository.claim(jobId, now, now.minusSeconds(leaseSeconds)) != 1) {
+                return null;
+            }
+            return generationJobRepository.findById(jobId)
+                    .orElseThrow(() -> new RuntimeException("Generation job not found: " + jobId));
+        });
+    }
+
+    private void markCompleted(Long jobId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            GenerationJob job = generationJobRepository.findById(jobId)
+                    .orElseThrow(() -> new RuntimeException("Generation job not found: " + jobId));
+            job.setStatus(GenerationStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            generationJobRepository.save(job);
+        });
+    }
+
+    private void markFailed(Long jobId, String message) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> generationJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(GenerationStatus.FAILED);
+                job.setErrorMessage(message != null && message.length() > 1000 ? message.substring(0, 1000) : message);
+                job.setCompletedAt(LocalDateTime.now());
+                generationJobRepository.save(job);
+            }));
+        } catch (Exception e) {
+            log.error("Could not record failure of generation job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private GenerationJobDTO toDTO(GenerationJob job) {
+        int requested = job.getRequestedCount();
+        int generated = job.getGeneratedCount();
+
+        Long rowsPerSecond = null;
+        Long estimatedSecondsRemaining = null;
+        LocalDateTime measuredUntil = job.getCompletedAt() != null ? job.getCompletedAt() : job.getCheckpointAt();
+        if (job.getStartedAt() != null && measuredUntil != null) {
+            long elapsedMs = Duration.between(job.getStartedAt(), measuredUntil).toMillis();
+            int doneThisRun = generated - (job.getRunStartCount() != null ? job.getRunStartCount() : 0);
+            if (elapsedMs > 0 && doneThisRun > 0) {
+                rowsPerSecond = doneThisRun * 1000L / elapsedMs;
+                if (job.getStatus() == GenerationStatus.PROCESSING && rowsPerSecond > 0) {
+                    estimatedSecondsRemaining = (requested - generated) / rowsPerSecond;
+                }
+            }
+        }
+
+        return GenerationJobDTO.builder()
+                .id(job.getId())
+                .batchId(job.getBatchId())
+                .campaignId(job.getCampaignId())
+                .status(job.getStatus())
+                .requestedCount(requested)
+                .generatedCount(generated)
+                .percentComplete(requested > 0 ? (int) (generated * 100L / requested) : 100)
+                .rowsPerSecond(rowsPerSecond)
+                .estimatedSecondsRemaining(estimatedSecondsRemaining)
+                .attempts(job.getAttempts())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .checkpointAt(job.getCheckpointAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
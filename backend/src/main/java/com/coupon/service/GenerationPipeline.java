@@ -0,0 +1,157 @@
+package com.coupon.service;
+
+import com.coupon.entity.CouponBatch;
+import com.coupon.repository.GenerationJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationPipeline {
+
+    private final CouponGeneratorService couponGeneratorService;
+    private final GenerationJobRepository generationJobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${coupon.generation.producer-threads:4}")
+    private int producerThreads;
+
+    @Value("${coupon.generation.writer-threads:2}")
+    private int writerThreads;
+
+    @Value("${coupon.generation.queue-depth:8}")
+    private int queueDepth;
+
+    private static final List<String> END_OF_STREAM = new ArrayList<>(0);
+    private static final long OFFER_TIMEOUT_MS = 500;
+
+    public int run(Long jobId, CouponBatch batch, int target) throws InterruptedException {
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(queueDepth);
+        AtomicInteger unplanned = new AtomicInteger(target);
+        AtomicInteger inserted = new AtomicInteger();
+        int chunkSize = couponGeneratorService.getChunkSize();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(producerThreads + writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-" + batch.getId() + "-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try {
+            List<Future<?>> producers = new ArrayList<>(producerThreads);
+            for (int i = 0; i < producerThreads; i++) {
+                producers.add(workers.submit(guarded(workers, failure, () -> produce(batch, queue, unplanned, chunkSize))));
+            }
+            List<Future<?>> writers = new ArrayList<>(writerThreads);
+            for (int i = 0; i < writerThreads; i++) {
+                writers.add(workers.submit(guarded(workers, failure, () -> write(jobId, batch, queue, inserted))));
+            }
+
+            awaitAll(producers);
+            for (int i = 0; i < writerThreads && failure.get() == null; ) {
+                if (queue.offer(END_OF_STREAM, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    i++;
+                }
+            }
+            awaitAll(writers);
+
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return inserted.get();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Runnable guarded(ExecutorService workers, AtomicReference<RuntimeException> failure, Stage stage) {
+        return () -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e instanceof RuntimeException runtimeException ? runtimeException
+                        : new RuntimeException("Generation pipeline worker failed: " + e, e));
+                workers.shutdownNow();
+            }
+        };
+    }
+
+    private void produce(CouponBatch batch, BlockingQueue<List<String>> queue, AtomicInteger unplanned,
+                         int chunkSize) throws InterruptedException {
+        CounterCodeGenerator.Session session = couponGeneratorService.openSession(batch);
+        while (true) {
+            int count = claim(unplanned, chunkSize);
+            if (count == 0) {
+                return;
+            }
+            List<String> codes = couponGeneratorService.produceCodes(batch, session, count);
+            while (!queue.offer(codes, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    private void write(Long jobId, CouponBatch batch, BlockingQueue<List<String>> queue,
+                       AtomicInteger inserted) throws InterruptedException {
+        while (true) {
+            List<String> codes = queue.take();
+            if (codes == END_OF_STREAM) {
+                return;
+            }
+            Integer count = transactionTemplate.execute(status -> {
+                int written = couponGeneratorService.writeCodes(batch, codes);
+                generationJobRepository.recordChunk(jobId, written, LocalDateTime.now());
+                return written;
+            });
+            inserted.addAndGet(count != null ? count : 0);
+        }
+    }
+
+    private int claim(AtomicInteger unplanned, int chunkSize) {
+        while (true) {
+            int remaining = unplanned.get();
+            int count = Math.min(chunkSize, remaining);
+            if (unplanned.compareAndSet(remaining, remaining - count)) {
+                return count;
+            }
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Unexpected pipeline failure", e.getCause());
+            }
+        }
+    }
+
+    private interface Stage {
+        void run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,8 @@
+package com.coupon.service;
+
+public class InvalidCouponCodeException extends RuntimeException {
+
+    public InvalidCouponCodeException(String code) {
+        super("Invalid coupon code: " + code, null, false, false);
+    }
+}
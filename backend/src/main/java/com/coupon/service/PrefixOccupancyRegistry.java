@@ -0,0 +1,169 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.util.LongHashSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrefixOccupancyRegistry {
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Value("${coupon.generation.occupancy-idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${coupon.code-filter.fetch-size:10000}")
+    private int fetchSize;
+
+    private static final int PREFIX_LENGTH = 6;
+    private static final int SERIAL_LENGTH = 8;
+
+    private final Map<String, FutureTask<Occupancy>> occupancies = new ConcurrentHashMap<>();
+
+    public Occupancy acquire(String prefix, int expectedCodes) throws InterruptedException {
+        FutureTask<Occupancy> task = occupancies.get(prefix);
+        if (task == null) {
+            FutureTask<Occupancy> created = new FutureTask<>(() -> load(prefix, expectedCodes));
+            task = occupancies.putIfAbsent(prefix, created);
+            if (task == null) {
+                task = created;
+                task.run();
+            }
+        }
+
+        Occupancy occupancy;
+        try {
+            occupancy = task.get();
+        } catch (ExecutionException e) {
+            occupancies.remove(prefix, task);
+            throw new RuntimeException("Failed to load occupancy set for prefix " + prefix + ": "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+        occupancy.lastUsedAt = System.currentTimeMillis();
+        return occupancy;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        occupancies.entrySet().removeIf(entry -> {
+            Occupancy occupancy = loaded(entry.getValue());
+            boolean idle = occupancy != null && occupancy.lastUsedAt < cutoff;
+            if (idle) {
+                log.debug("Released occupancy set for prefix {} ({} codes)", entry.getKey(), occupancy.size());
+            }
+            return idle;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long codes = 0;
+        long bytes = 0;
+        for (FutureTask<Occupancy> task : occupancies.values()) {
+            Occupancy occupancy = loaded(task);
+            if (occupancy != null) {
+                codes += occupancy.size();
+                bytes += occupancy.getSizeInBytes();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("prefixes", occupancies.size());
+        stats.put("codes", codes);
+        stats.put("memoryBytes", bytes);
+        return stats;
+    }
+
+    private Occupancy load(String prefix, int expectedCodes) {
+        long startedAt = System.currentTimeMillis();
+        Occupancy occupancy = new Occupancy(expectedCodes);
+        String sql = databaseDialect == DatabaseDialect.ORACLE
+                ? "SELECT code FROM coupon WHERE SUBSTR(code, 1, 6) = ?"
+                : "SELECT code FROM coupon WHERE SUBSTRING(code, 1, 6) = ?";
+
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        transactionTemplate.executeWithoutResult(status ->
+                streamingTemplate.query(sql, (RowCallbackHandler) rs -> occupancy.add(rs.getString(1)), prefix));
+
+        log.info("Loaded occupancy set for prefix {} with {} codes in {} ms",
+                prefix, occupancy.size(), System.currentTimeMillis() - startedAt);
+        return occupancy;
+    }
+
+    private static Occupancy loaded(FutureTask<Occupancy> task) {
+        if (!task.isDone()) {
+            return null;
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static long decodeSerial(CharSequence code) {
+        long value = 0;
+        for (int i = PREFIX_LENGTH; i < PREFIX_LENGTH + SERIAL_LENGTH; i++) {
+            value = value * 36 + digit(code.charAt(i));
+        }
+        return value;
+    }
+
+    private static long decodeSerial(char[] code) {
+        long value = 0;
+        for (int i = PREFIX_LENGTH; i < PREFIX_LENGTH + SERIAL_LENGTH; i++) {
+            value = value * 36 + digit(code[i]);
+        }
+        return value;
+    }
+
+    private static int digit(char c) {
+        return c >= 'A' ? c - 'A' : c - '0' + 26;
+    }
+
+    public static class Occupancy {
+
+        private final LongHashSet serials;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private Occupancy(int expectedCodes) {
+            this.serials = new LongHashSet(expectedCodes);
+        }
+
+        public synchronized boolean claim(char[] code) {
+            return serials.add(decodeSerial(code));
+        }
+
+        private synchronized void add(String code) {
+            if (code.length() == PREFIX_LENGTH + SERIAL_LENGTH) {
+                serials.add(decodeSerial(code));
+            }
+        }
+
+        public synchronized int size() {
+            return serials.size();
+        }
+
+        public synchronized long getSizeInBytes() {
+            return serials.getSizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.dto.RedemptionRequestDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class RedemptionEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    private static final String POSTGRES_REDEEM_SQL =
+            "UPDATE coupon c SET " +
+            "usage_count = c.usage_count + 1, " +
+            "status = CASE WHEN c.usage_count + 1 >= cp.max_usages THEN 'MAX_USED' ELSE c.status END, " +
+            "transaction_number = ?, loyalty_id = ?, source = ?, redeemed_at = ?, updated_at = ? " +
+            "FROM coupon_batch b, campaign cp " +
+            "WHERE c.code = ? AND b.id = c.batch_id AND cp.id = b.campaign_id " +
+            "AND b.active = TRUE AND cp.active = TRUE " +
+            "AND c.status = 'ACTIVE' AND c.usage_count < cp.max_usages " +
+            "AND cp.start_date <= ? AND cp.expiry_date >= ? " +
+            "RETURNING c.usage_count, cp.max_usages, c.batch_id";
+
+    private static final String POSTGRES_BULK_REDEEM_SQL =
+            "UPDATE coupon c SET " +
+            "usage_count = c.usage_count + 1, " +
+            "status = CASE WHEN c.usage_count + 1 >= cp.max_usages THEN 'MAX_USED' ELSE c.status END, " +
+            "transaction_number = r.transaction_number, loyalty_id = r.loyalty_id, source = r.source, " +
+            "redeemed_at = ?, updated_at = ? " +
+            "FROM unnest(?, ?, ?, ?) AS r(code, transaction_number, loyalty_id, source), " +
+            "coupon_batch b, campaign cp " +
+            "WHERE c.code = r.code AND b.id = c.batch_id AND cp.id = b.campaign_id " +
+            "AND b.active = TRUE AND cp.active = TRUE " +
+            "AND c.status = 'ACTIVE' AND c.usage_count < cp.max_usages " +
+            "AND cp.start_date <= ? AND cp.expiry_date >= ? " +
+            "RETURNING c.code, c.usage_count, cp.max_usages, c.batch_id";
+
+    private static final String ORACLE_REDEEM_BLOCK =
+            "DECLARE v_usage NUMBER; v_batch NUMBER; v_max NUMBER; " +
+            "BEGIN " +
+            "UPDATE coupon c SET " +
+            "c.usage_count = c.usage_count + 1, " +
+            "c.status = CASE WHEN c.usage_count + 1 >= (SELECT cp.max_usages FROM coupon_batch b " +
+            "JOIN campaign cp ON cp.id = b.campaign_id WHERE b.id = c.batch_id) THEN 'MAX_USED' ELSE c.status END, " +
+            "c.transaction_number = ?, c.loyalty_id = ?, c.source = ?, c.redeemed_at = ?, c.updated_at = ? " +
+            "WHERE c.code = ? AND c.status = 'ACTIVE' " +
+            "AND EXISTS (SELECT 1 FROM coupon_batch b JOIN campaign cp ON cp.id = b.campaign_id " +
+            "WHERE b.id = c.batch_id AND b.active = 1 AND cp.active = 1 " +
+            "AND c.usage_count < cp.max_usages AND cp.start_date <= ? AND cp.expiry_date >= ?) " +
+            "RETURNING c.usage_count, c.batch_id INTO v_usage, v_batch; " +
+            "IF SQL%ROWCOUNT = 1 THEN " +
+            "SELECT cp.max_usages INTO v_max FROM coupon_batch b JOIN campaign cp ON cp.id = b.campaign_id " +
+            "WHERE b.id = v_batch; " +
+            "END IF; " +
+            "? := v_usage; ? := v_max; ? := v_batch; " +
+            "END;";
+
+    public Optional<Result> redeem(String code, RedemptionRequestDTO request, LocalDateTime now) {
+        if (databaseDialect == DatabaseDialect.ORACLE) {
+            return redeemOracle(code, request, now);
+        }
+        return redeemPostgres(code, request, now);
+    }
+
+    public Map<String, Result> redeemAll(Map<String, RedemptionRequestDTO> requestsByCode, LocalDateTime now) {
+        Map<String, Result> results = new HashMap<>();
+        if (requestsByCode.isEmpty()) {
+            return results;
+        }
+
+        if (databaseDialect != DatabaseDialect.POSTGRESQL) {
+            requestsByCode.forEach((code, request) ->
+                    redeem(code, request, now).ifPresent(result -> results.put(code, result)));
+            return results;
+        }
+
+        int size = requestsByCode.size();
+        String[] codes = new String[size];
+        String[] transactionNumbers = new String[size];
+        String[] loyaltyIds = new String[size];
+        String[] sources = new String[size];
+        int i = 0;
+        for (Map.Entry<String, RedemptionRequestDTO> entry : requestsByCode.entrySet()) {
+            codes[i] = entry.getKey();
+            transactionNumbers[i] = entry.getValue().getTransactionNumber();
+            loyaltyIds[i] = entry.getValue().getLoyaltyId();
+            sources[i] = entry.getValue().getSource();
+            i++;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Date today = Date.valueOf(now.toLocalDate());
+        jdbcTemplate.query(POSTGRES_BULK_REDEEM_SQL, (PreparedStatement ps) -> {
+            Connection connection = ps.getConnection();
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, toVarcharArray(connection, codes));
+            ps.setArray(4, toVarcharArray(connection, transactionNumbers));
+            ps.setArray(5, toVarcharArray(connection, loyaltyIds));
+            ps.setArray(6, toVarcharArray(connection, sources));
+            ps.setDate(7, today);
+            ps.setDate(8, today);
+        }, (RowCallbackHandler) rs ->
+                results.put(rs.getString(1), new Result(rs.getInt(2), rs.getInt(3), rs.getLong(4), now)));
+        return results;
+    }
+
+    private Array toVarcharArray(Connection connection, String[] values) throws SQLException {
+        return connection.createArrayOf("varchar", values);
+    }
+
+    private Optional<Result> redeemPostgres(String code, RedemptionRequestDTO request, LocalDateTime now) {
+        List<Result> results = jdbcTemplate.query(POSTGRES_REDEEM_SQL,
+                (PreparedStatement ps) -> bindRedemption(ps, code, request, now),
+                (rs, rowNum) -> new Result(rs.getInt(1), rs.getInt(2), rs.getLong(3), now));
+        return results.stream().findFirst();
+    }
+
+    private Optional<Result> redeemOracle(String code, RedemptionRequestDTO request, LocalDateTime now) {
+        return jdbcTemplate.execute(ORACLE_REDEEM_BLOCK, (CallableStatement cs) -> {
+            bindRedemption(cs, code, request, now);
+            cs.registerOutParameter(9, Types.INTEGER);
+            cs.registerOutParameter(10, Types.INTEGER);
+            cs.registerOutParameter(11, Types.BIGINT);
+            cs.execute();
+            int usageCount = cs.getInt(9);
+            if (cs.wasNull()) {
+                return Optional.<Result>empty();
+            }
+            return Optional.of(new Result(usageCount, cs.getInt(10), cs.getLong(11), now));
+        });
+    }
+
+    private void bindRedemption(PreparedStatement ps, String code, RedemptionRequestDTO request,
+                                LocalDateTime now) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Date today = Date.valueOf(now.toLocalDate());
+        ps.setString(1, request.getTransactionNumber());
+        ps.setString(2, request.getLoyaltyId());
+        ps.setString(3, request.getSource());
+        ps.setTimestamp(4, timestamp);
+        ps.setTimestamp(5, timestamp);
+        ps.setString(6, code);
+        ps.setDate(7, today);
+        ps.setDate(8, today);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final int usageCount;
+        private final int maxUsages;
+        private final long batchId;
+        private final LocalDateTime redeemedAt;
+    }
+}
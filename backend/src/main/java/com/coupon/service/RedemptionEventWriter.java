@@ -0,0 +1,250 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.entity.RedemptionEvent;
+import com.coupon.util.CsvByteWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedemptionEventWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseDialect databaseDialect;
+
+    @Value("${coupon.redemption-events.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${coupon.redemption-events.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${coupon.redemption-events.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${coupon.redemption-events.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Value("${coupon.redemption-events.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${coupon.redemption-events.dead-letter-file:dead-letter/redemption-events.csv}")
+    private String deadLetterFile;
+
+    private static final String POSTGRES_INSERT_SQL =
+            "INSERT INTO redemption_event (id, code, batch_id, usage_count, transaction_number, loyalty_id, source, redeemed_at) " +
+            "VALUES (nextval('redemption_event_seq'), ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ORACLE_INSERT_SQL =
+            "INSERT INTO redemption_event (id, code, batch_id, usage_count, transaction_number, loyalty_id, source, redeemed_at) " +
+            "VALUES (redemption_event_seq.NEXTVAL, ?, ?, ?, ?, ?, ?, ?)";
+
+    private TransactionTemplate writeTransaction;
+    private BlockingQueue<RedemptionEvent> queue;
+    private ScheduledExecutorService flusher;
+    private final List<RedemptionEvent> failed = new ArrayList<>();
+    private int failedAttempts;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redemption-event-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Redemption event writer did not stop within {} seconds", shutdownTimeoutSeconds);
+        }
+        flush();
+        if (!failed.isEmpty() || !queue.isEmpty()) {
+            log.error("{} redemption events could not be written before shutdown", failed.size() + queue.size());
+        }
+    }
+
+    public void record(List<RedemptionEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(events);
+                }
+            });
+        } else {
+            enqueue(events);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("dropped", dropped.get());
+        stats.put("deadLettered", deadLettered.get());
+        return stats;
+    }
+
+    private void enqueue(List<RedemptionEvent> events) {
+        for (RedemptionEvent event : events) {
+            if (queue.offer(event)) {
+                continue;
+            }
+            long droppedCount = dropped.incrementAndGet();
+            if (droppedCount == 1 || droppedCount % 1000 == 0) {
+                log.error("Redemption event queue is full; dropped event for coupon {} (transaction {}), {} dropped so far",
+                        event.getCode(), event.getTransactionNumber(), droppedCount);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush redemption events: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized void flush() {
+        if (!failed.isEmpty()) {
+            if (!retryFailed()) {
+                return;
+            }
+        }
+
+        List<RedemptionEvent> pending = new ArrayList<>(batchSize);
+        while (queue.drainTo(pending, batchSize) > 0) {
+            try {
+                writeBatch(pending);
+            } catch (Exception e) {
+                log.error("Failed to write {} redemption events, will retry: {}", pending.size(), e.getMessage());
+                failed.addAll(pending);
+                failedAttempts = isUnavailable(e) ? 0 : 1;
+                return;
+            }
+            pending.clear();
+        }
+    }
+
+    private boolean retryFailed() {
+        try {
+            writeBatch(failed);
+            failed.clear();
+            failedAttempts = 0;
+            return true;
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                log.error("Failed to write {} redemption events, will retry: {}", failed.size(), e.getMessage());
+                return false;
+            }
+            if (++failedAttempts < maxRetries) {
+                log.error("Failed to write {} redemption events (attempt {} of {}), will retry: {}",
+                        failed.size(), failedAttempts, maxRetries, e.getMessage());
+                return false;
+            }
+        }
+
+        log.error("Giving up on a batch of {} redemption events after {} attempts; writing them one by one",
+                failed.size(), failedAttempts);
+        for (RedemptionEvent event : failed) {
+            try {
+                writeBatch(List.of(event));
+            } catch (Exception e) {
+                deadLetter(event, e);
+            }
+        }
+        failed.clear();
+        failedAttempts = 0;
+        return true;
+    }
+
+    private static boolean isUnavailable(Exception e) {
+        return e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException;
+    }
+
+    private void deadLetter(RedemptionEvent event, Exception cause) {
+        deadLettered.incrementAndGet();
+        log.error("Dead-lettered redemption event for coupon {} (batch {}, usage {}, transaction {}, redeemed {}): {}",
+                event.getCode(), event.getBatchId(), event.getUsageCount(), event.getTransactionNumber(),
+                event.getRedeemedAt(), cause.getMessage());
+        Path path = Path.of(deadLetterFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                CsvByteWriter writer = new CsvByteWriter(out, 512);
+                writer.field(event.getCode()).field(event.getBatchId()).field(event.getUsageCount())
+                        .field(event.getTransactionNumber()).field(event.getLoyaltyId()).field(event.getSource())
+                        .field(event.getRedeemedAt()).field(cause.getMessage());
+                writer.endRow();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.error("Could not append to redemption event dead-letter file {}: {}", deadLetterFile, e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<RedemptionEvent> events) {
+        String sql = databaseDialect == DatabaseDialect.ORACLE ? ORACLE_INSERT_SQL : POSTGRES_INSERT_SQL;
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (RedemptionEvent event : events) {
+            args.add(new Object[] {
+                    event.getCode(), event.getBatchId(), event.getUsageCount(), event.getTransactionNumber(),
+                    event.getLoyaltyId(), event.getSource(), Timestamp.valueOf(event.getRedeemedAt()) });
+        }
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+        log.debug("Wrote {} redemption events", events.size());
+    }
+}
@@ -0,0 +1,228 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.dto.RedemptionRequestDTO;
+import com.coupon.dto.RedemptionResponseDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedemptionIdempotencyService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Value("${coupon.redemption.idempotency-cache-size:100000}")
+    private int cacheSize;
+
+    @Value("${coupon.redemption.receipt-retention-days:30}")
+    private int retentionDays;
+
+    private static final int MAX_CODE_LENGTH = 14;
+
+    private static final String POSTGRES_CLAIM_SQL =
+            "INSERT INTO redemption_receipt (id, idempotency_key, code, transaction_number, source, created_at) " +
+            "VALUES (nextval('redemption_receipt_seq'), ?, ?, ?, ?, ?) ON CONFLICT (idempotency_key) DO NOTHING";
+
+    private static final String ORACLE_CLAIM_SQL =
+            "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(redemption_receipt, redemption_receipt_key_uk) */ " +
+            "INTO redemption_receipt (id, idempotency_key, code, transaction_number, source, created_at) " +
+            "VALUES (redemption_receipt_seq.NEXTVAL, ?, ?, ?, ?, ?)";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE redemption_receipt SET loyalty_id = ?, usage_count = ?, max_usages = ?, redeemed_at = ? " +
+            "WHERE idempotency_key = ?";
+
+    private static final String RELEASE_SQL = "DELETE FROM redemption_receipt WHERE idempotency_key = ?";
+
+    private Map<String, RedemptionResponseDTO> recentResponses;
+
+    @PostConstruct
+    void initCache() {
+        recentResponses = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RedemptionResponseDTO> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public String keyFor(RedemptionRequestDTO request) {
+        String transactionNumber = request.getTransactionNumber();
+        if (transactionNumber == null || transactionNumber.isBlank()
+                || request.getCode() == null || request.getCode().length() > MAX_CODE_LENGTH) {
+            return null;
+        }
+        String source = request.getSource() != null ? request.getSource() : "";
+        return request.getCode().toUpperCase() + "|" + transactionNumber + "|" + source;
+    }
+
+    public Optional<RedemptionResponseDTO> findCached(String key, RedemptionRequestDTO request) {
+        RedemptionResponseDTO cached = recentResponses.get(key);
+        return Optional.ofNullable(cached).map(response -> withRequestCode(response, request));
+    }
+
+    public boolean claim(String key, RedemptionRequestDTO request, LocalDateTime now) {
+        return jdbcTemplate.update(claimSql(), key, request.getCode().toUpperCase(),
+                request.getTransactionNumber(), request.getSource(), Timestamp.valueOf(now)) > 0;
+    }
+
+    public Map<String, Boolean> claimAll(Map<String, RedemptionRequestDTO> requestsByKey, LocalDateTime now) {
+        Map<String, Boolean> claimed = new HashMap<>();
+        if (requestsByKey.isEmpty()) {
+            return claimed;
+        }
+
+        if (databaseDialect != DatabaseDialect.POSTGRESQL) {
+            // Oracle answers batched statements with SUCCESS_NO_INFO, which cannot tell a new claim from a
+            // duplicate key; single-row updates report the real count.
+            requestsByKey.forEach((key, request) -> claimed.put(key, claim(key, request, now)));
+            return claimed;
+        }
+
+        List<String> keys = new ArrayList<>(requestsByKey.keySet());
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            RedemptionRequestDTO request = requestsByKey.get(key);
+            args.add(new Object[] { key, request.getCode().toUpperCase(),
+                    request.getTransactionNumber(), request.getSource(), timestamp });
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(claimSql(), args);
+        for (int i = 0; i < keys.size(); i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("JDBC driver did not report row counts for redemption claims; " +
+                        "batched claims need per-row counts (disable reWriteBatchedInserts)");
+            }
+            claimed.put(keys.get(i), counts[i] > 0);
+        }
+        return claimed;
+    }
+
+    public Map<String, RedemptionResponseDTO> findReceipts(Map<String, RedemptionRequestDTO> requestsByKey) {
+        Map<String, RedemptionResponseDTO> receipts = new HashMap<>();
+        if (requestsByKey.isEmpty()) {
+            return receipts;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(requestsByKey.size(), "?"));
+        jdbcTemplate.query(
+                "SELECT idempotency_key, transaction_number, loyalty_id, source, usage_count, max_usages, redeemed_at " +
+                "FROM redemption_receipt WHERE usage_count IS NOT NULL AND idempotency_key IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> {
+                    String key = rs.getString(1);
+                    int usageCount = rs.getInt(5);
+                    int maxUsages = rs.getInt(6);
+                    RedemptionResponseDTO response = RedemptionResponseDTO.builder()
+                            .success(true)
+                            .message("Coupon redeemed successfully")
+                            .code(requestsByKey.get(key).getCode())
+                            .usageCount(usageCount)
+                            .maxUsages(maxUsages)
+                            .remainingUsages(maxUsages - usageCount)
+                            .transactionNumber(rs.getString(2))
+                            .loyaltyId(rs.getString(3))
+                            .source(rs.getString(4))
+                            .redeemedAt(rs.getTimestamp(7).toLocalDateTime().toString())
+                            .build();
+                    receipts.put(key, response);
+                    remember(key, response);
+                },
+                requestsByKey.keySet().toArray());
+        return receipts;
+    }
+
+    public void complete(Map<String, RedemptionResponseDTO> responsesByKey, LocalDateTime redeemedAt) {
+        if (responsesByKey.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(redeemedAt);
+        List<Object[]> args = new ArrayList<>(responsesByKey.size());
+        responsesByKey.forEach((key, response) -> args.add(new Object[] {
+                response.getLoyaltyId(), response.getUsageCount(), response.getMaxUsages(), timestamp, key }));
+        jdbcTemplate.batchUpdate(COMPLETE_SQL, args);
+
+        afterCommit(() -> responsesByKey.forEach(this::remember));
+    }
+
+    public void release(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(keys.size());
+        keys.forEach(key -> args.add(new Object[] { key }));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+    }
+
+    @Scheduled(cron = "0 30 0 * * ?")
+    @Transactional
+    public void purgeExpiredReceipts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int purged = jdbcTemplate.update("DELETE FROM redemption_receipt WHERE created_at < ?", Timestamp.valueOf(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} redemption receipts older than {} days", purged, retentionDays);
+        }
+    }
+
+    private void remember(String key, RedemptionResponseDTO response) {
+        recentResponses.put(key, response);
+    }
+
+    private RedemptionResponseDTO withRequestCode(RedemptionResponseDTO response, RedemptionRequestDTO request) {
+        return RedemptionResponseDTO.builder()
+                .success(response.isSuccess())
+                .message(response.getMessage())
+                .code(request.getCode())
+                .usageCount(response.getUsageCount())
+                .maxUsages(response.getMaxUsages())
+                .remainingUsages(response.getRemainingUsages())
+                .transactionNumber(response.getTransactionNumber())
+                .loyaltyId(response.getLoyaltyId())
+                .source(response.getSource())
+                .redeemedAt(response.getRedeemedAt())
+                .build();
+    }
+
+    private String claimSql() {
+        return databaseDialect == DatabaseDialect.ORACLE ? ORACLE_CLAIM_SQL : POSTGRES_CLAIM_SQL;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.coupon.service;
 
+import com.coupon.dto.BulkRedemptionMode;
+import com.coupon.dto.BulkRedemptionResponseDTO;
 import com.coupon.dto.RedemptionRequestDTO;
 import com.coupon.dto.RedemptionResponseDTO;
-import com.coupon.entity.Campaign;
 import com.coupon.entity.Coupon;
-import com.coupon.entity.CouponBatch;
 import com.coupon.entity.CouponStatus;
+import com.coupon.entity.RedemptionEvent;
 import com.coupon.repository.CouponRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,19 +29,274 @@ import java.util.Optional;
 public class RedemptionService {
 
     private final CouponRepository couponRepository;
+    private final RedemptionEngine redemptionEngine;
+    private final BatchMetadataCache batchMetadataCache;
+    private final RedemptionIdempotencyService idempotencyService;
+    private final RedemptionEventWriter redemptionEventWriter;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponCodeValidator couponCodeValidator;
+    private final VirtualBatchService virtualBatchService;
+    private final TransactionTemplate transactionTemplate;
+
+    public static final int BULK_MAX_ITEMS = 500;
 
-    @Transactional
     public RedemptionResponseDTO redeemCoupon(String code) {
         RedemptionRequestDTO request = new RedemptionRequestDTO();
         request.setCode(code);
         return redeemCoupon(request);
     }
 
-    @Transactional
     public RedemptionResponseDTO redeemCoupon(RedemptionRequestDTO request) {
+        String normalizedCode = request.getCode().toUpperCase();
+        if (!couponCodeValidator.isWellFormed(normalizedCode)) {
+            log.debug("Redemption attempt with invalid check character: {}", request.getCode());
+            return failure(request.getCode(), "Invalid coupon code");
+        }
+        if (!couponCodeFilter.mightExist(normalizedCode)) {
+            log.debug("Redemption attempt for unknown coupon: {}", request.getCode());
+            return failure(request.getCode(), "Coupon not found");
+        }
+
+        String idempotencyKey = idempotencyService.keyFor(request);
+        if (idempotencyKey != null) {
+            Optional<RedemptionResponseDTO> cached = idempotencyService.findCached(idempotencyKey, request);
+            if (cached.isPresent()) {
+                log.info("Answered retried redemption of {} (transaction {}) from cache",
+                        request.getCode(), request.getTransactionNumber());
+                return cached.get();
+            }
+        }
+
+        return transactionTemplate.execute(status -> redeemInTransaction(request, idempotencyKey));
+    }
+
+    private RedemptionResponseDTO redeemInTransaction(RedemptionRequestDTO request, String idempotencyKey) {
         String code = request.getCode();
-        Optional<Coupon> couponOpt = couponRepository.findByCodeWithBatchAndCampaign(code.toUpperCase());
+        LocalDateTime now = LocalDateTime.now();
+
+        if (idempotencyKey != null && !idempotencyService.claim(idempotencyKey, request, now)) {
+            RedemptionResponseDTO receipt = idempotencyService.findReceipts(Map.of(idempotencyKey, request))
+                    .get(idempotencyKey);
+            log.info("Answered retried redemption of {} (transaction {}) from receipt",
+                    code, request.getTransactionNumber());
+            return receipt != null ? receipt : failure(code, "Duplicate redemption request");
+        }
+
+        Optional<RedemptionEngine.Result> result = redemptionEngine.redeem(code.toUpperCase(), request, now);
+        if (result.isEmpty() && virtualBatchService.materialize(code.toUpperCase())) {
+            result = redemptionEngine.redeem(code.toUpperCase(), request, now);
+        }
+        if (result.isEmpty()) {
+            if (idempotencyKey != null) {
+                idempotencyService.release(List.of(idempotencyKey));
+            }
+            return rejectRedemption(code, now.toLocalDate());
+        }
+
+        RedemptionEngine.Result redeemed = result.get();
+        if (redeemed.getUsageCount() >= redeemed.getMaxUsages()) {
+            log.info("Coupon {} has reached max usage ({}/{})", code, redeemed.getUsageCount(), redeemed.getMaxUsages());
+        }
+
+        log.info("Successfully redeemed coupon: {} (usage {}/{}) - Transaction: {}, LoyaltyID: {}, Source: {}", 
+                code, redeemed.getUsageCount(), redeemed.getMaxUsages(), 
+                request.getTransactionNumber(), request.getLoyaltyId(), request.getSource());
+
+        redemptionEventWriter.record(List.of(toEvent(code.toUpperCase(), request, redeemed)));
+
+        RedemptionResponseDTO response = toSuccessResponse(request, redeemed);
+        if (idempotencyKey != null) {
+            idempotencyService.complete(Map.of(idempotencyKey, response), now);
+        }
+        return response;
+    }
+
+    public BulkRedemptionResponseDTO redeemCoupons(List<RedemptionRequestDTO> requests, BulkRedemptionMode mode) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("At least one coupon is required for bulk redemption");
+        }
+        if (requests.size() > BULK_MAX_ITEMS) {
+            throw new RuntimeException("Bulk redemption accepts at most " + BULK_MAX_ITEMS + " coupons per request");
+        }
+
+        RedemptionResponseDTO[] results = new RedemptionResponseDTO[requests.size()];
+        Map<String, Integer> pendingIndexByCode = new LinkedHashMap<>();
+        Map<String, String> keyByCode = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            RedemptionRequestDTO request = requests.get(i);
+            String code = request.getCode();
+            if (code == null || code.isBlank()) {
+                results[i] = failure(code, "Coupon code is required");
+                continue;
+            }
+            String normalizedCode = code.toUpperCase();
+            if (pendingIndexByCode.containsKey(normalizedCode) || keyByCode.containsKey(normalizedCode)) {
+                results[i] = failure(code, "Duplicate coupon code in bulk request");
+                continue;
+            }
+            if (!couponCodeValidator.isWellFormed(normalizedCode)) {
+                results[i] = failure(code, "Invalid coupon code");
+                continue;
+            }
+            if (!couponCodeFilter.mightExist(normalizedCode)) {
+                results[i] = failure(code, "Coupon not found");
+                continue;
+            }
+
+            String idempotencyKey = idempotencyService.keyFor(request);
+            if (idempotencyKey != null) {
+                keyByCode.put(normalizedCode, idempotencyKey);
+                Optional<RedemptionResponseDTO> cached = idempotencyService.findCached(idempotencyKey, request);
+                if (cached.isPresent()) {
+                    results[i] = cached.get();
+                    continue;
+                }
+            }
+            pendingIndexByCode.put(normalizedCode, i);
+        }
+
+        if (!pendingIndexByCode.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                redeemPendingInTransaction(requests, results, pendingIndexByCode, keyByCode);
+                if (mode == BulkRedemptionMode.ALL_OR_NOTHING && !allSucceeded(results)) {
+                    status.setRollbackOnly();
+                    for (int index : pendingIndexByCode.values()) {
+                        if (results[index].isSuccess()) {
+                            results[index] = failure(results[index].getCode(),
+                                    "Not redeemed: another coupon in the request was rejected");
+                        }
+                    }
+                }
+            });
+        }
+
+        int redeemedCount = (int) Arrays.stream(results).filter(RedemptionResponseDTO::isSuccess).count();
+        log.info("Bulk redemption ({}) of {} coupons: {} redeemed, {} rejected",
+                mode, requests.size(), redeemedCount, requests.size() - redeemedCount);
+
+        return BulkRedemptionResponseDTO.builder()
+                .mode(mode)
+                .success(redeemedCount == requests.size())
+                .requestedCount(requests.size())
+                .redeemedCount(redeemedCount)
+                .rejectedCount(requests.size() - redeemedCount)
+                .results(new ArrayList<>(Arrays.asList(results)))
+                .build();
+    }
+
+    private void redeemPendingInTransaction(List<RedemptionRequestDTO> requests, RedemptionResponseDTO[] results,
+                                            Map<String, Integer> pendingIndexByCode, Map<String, String> keyByCode) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, RedemptionRequestDTO> requestsByKey = new LinkedHashMap<>();
+        pendingIndexByCode.forEach((normalizedCode, index) -> {
+            String idempotencyKey = keyByCode.get(normalizedCode);
+            if (idempotencyKey != null) {
+                requestsByKey.put(idempotencyKey, requests.get(index));
+            }
+        });
+
+        Map<String, Boolean> claimed = idempotencyService.claimAll(requestsByKey, now);
+        Map<String, RedemptionRequestDTO> retriedByKey = new LinkedHashMap<>();
+        claimed.forEach((idempotencyKey, isClaimed) -> {
+            if (!isClaimed) {
+                retriedByKey.put(idempotencyKey, requestsByKey.get(idempotencyKey));
+            }
+        });
+        Map<String, RedemptionResponseDTO> receipts = idempotencyService.findReceipts(retriedByKey);
+
+        Map<String, RedemptionRequestDTO> requestsByCode = new LinkedHashMap<>();
+        pendingIndexByCode.forEach((normalizedCode, index) -> {
+            String idempotencyKey = keyByCode.get(normalizedCode);
+            if (idempotencyKey != null && retriedByKey.containsKey(idempotencyKey)) {
+                RedemptionResponseDTO receipt = receipts.get(idempotencyKey);
+                results[index] = receipt != null ? receipt
+                        : failure(requests.get(index).getCode(), "Duplicate redemption request");
+            } else {
+                requestsByCode.put(normalizedCode, requests.get(index));
+            }
+        });
+
+        Map<String, RedemptionEngine.Result> redeemed = new HashMap<>(redemptionEngine.redeemAll(requestsByCode, now));
+
+        Map<String, RedemptionRequestDTO> materialized = new LinkedHashMap<>();
+        requestsByCode.forEach((normalizedCode, request) -> {
+            if (!redeemed.containsKey(normalizedCode) && virtualBatchService.materialize(normalizedCode)) {
+                materialized.put(normalizedCode, request);
+            }
+        });
+        if (!materialized.isEmpty()) {
+            redeemed.putAll(redemptionEngine.redeemAll(materialized, now));
+        }
 
+        Map<String, RedemptionResponseDTO> completed = new LinkedHashMap<>();
+        List<String> released = new ArrayList<>();
+        List<RedemptionEvent> events = new ArrayList<>();
+        requestsByCode.forEach((normalizedCode, request) -> {
+            int index = pendingIndexByCode.get(normalizedCode);
+            String idempotencyKey = keyByCode.get(normalizedCode);
+            RedemptionEngine.Result result = redeemed.get(normalizedCode);
+            if (result != null) {
+                results[index] = toSuccessResponse(request, result);
+                events.add(toEvent(normalizedCode, request, result));
+                if (idempotencyKey != null) {
+                    completed.put(idempotencyKey, results[index]);
+                }
+            } else {
+                results[index] = rejectRedemption(request.getCode(), now.toLocalDate());
+                if (idempotencyKey != null) {
+                    released.add(idempotencyKey);
+                }
+            }
+        });
+
+        idempotencyService.complete(completed, now);
+        idempotencyService.release(released);
+        redemptionEventWriter.record(events);
+    }
+
+    private boolean allSucceeded(RedemptionResponseDTO[] results) {
+        return Arrays.stream(results).allMatch(RedemptionResponseDTO::isSuccess);
+    }
+
+    private RedemptionResponseDTO toSuccessResponse(RedemptionRequestDTO request, RedemptionEngine.Result redeemed) {
+        return RedemptionResponseDTO.builder()
+                .success(true)
+                .message("Coupon redeemed successfully")
+                .code(request.getCode())
+                .usageCount(redeemed.getUsageCount())
+                .maxUsages(redeemed.getMaxUsages())
+                .remainingUsages(redeemed.getMaxUsages() - redeemed.getUsageCount())
+                .transactionNumber(request.getTransactionNumber())
+                .loyaltyId(request.getLoyaltyId())
+                .source(request.getSource())
+                .redeemedAt(redeemed.getRedeemedAt().toString())
+                .build();
+    }
+
+    private RedemptionEvent toEvent(String code, RedemptionRequestDTO request, RedemptionEngine.Result redeemed) {
+        return RedemptionEvent.builder()
+                .code(code)
+                .batchId(redeemed.getBatchId())
+                .usageCount(redeemed.getUsageCount())
+                .transactionNumber(request.getTransactionNumber())
+                .loyaltyId(request.getLoyaltyId())
+                .source(request.getSource())
+                .redeemedAt(redeemed.getRedeemedAt())
+                .build();
+    }
+
+    private RedemptionResponseDTO failure(String code, String message) {
+        return RedemptionResponseDTO.builder()
+                .success(false)
+                .message(message)
+                .code(code)
+                .build();
+    }
+
+    private RedemptionResponseDTO rejectRedemption(String code, LocalDate today) {
+        Optional<Coupon> couponOpt = couponRepository.findByCode(code.toUpperCase());
         if (couponOpt.isEmpty()) {
             log.warn("Redemption attempt for non-existent coupon: {}", code);
             return RedemptionResponseDTO.builder()
@@ -45,10 +307,9 @@ public class RedemptionService {
         }
 
         Coupon coupon = couponOpt.get();
-        CouponBatch batch = coupon.getBatch();
-        Campaign campaign = batch.getCampaign();
+        BatchMetadata metadata = batchMetadataCache.get(coupon.getBatch().getId());
 
-        if (!batch.getActive()) {
+        if (!metadata.isBatchActive()) {
             log.warn("Redemption attempt for inactive batch coupon: {}", code);
             return RedemptionResponseDTO.builder()
                     .success(false)
@@ -57,7 +318,7 @@ public class RedemptionService {
                     .build();
         }
 
-        if (!campaign.getActive()) {
+        if (!metadata.isCampaignActive()) {
             log.warn("Redemption attempt for inactive campaign coupon: {}", code);
             return RedemptionResponseDTO.builder()
                     .success(false)
@@ -91,22 +352,21 @@ public class RedemptionService {
                     .message("Coupon has reached maximum usage limit")
                     .code(code)
                     .usageCount(coupon.getUsageCount())
-                    .maxUsages(campaign.getMaxUsages())
+                    .maxUsages(metadata.getMaxUsages())
                     .remainingUsages(0)
                     .build();
         }
 
-        LocalDate today = LocalDate.now();
-        if (today.isBefore(campaign.getStartDate())) {
+        if (today.isBefore(metadata.getStartDate())) {
             log.warn("Redemption attempt for coupon not yet valid: {}", code);
             return RedemptionResponseDTO.builder()
                     .success(false)
-                    .message("Coupon is not yet valid. Valid from: " + campaign.getStartDate())
+                    .message("Coupon is not yet valid. Valid from: " + metadata.getStartDate())
                     .code(code)
                     .build();
         }
 
-        if (today.isAfter(campaign.getExpiryDate())) {
+        if (today.isAfter(metadata.getExpiryDate())) {
             coupon.setStatus(CouponStatus.EXPIRED);
             couponRepository.save(coupon);
             log.warn("Redemption attempt for date-expired coupon: {}", code);
@@ -117,36 +377,23 @@ public class RedemptionService {
                     .build();
         }
 
-        int newUsageCount = coupon.getUsageCount() + 1;
-        coupon.setUsageCount(newUsageCount);
-
-        LocalDateTime now = LocalDateTime.now();
-        coupon.setTransactionNumber(request.getTransactionNumber());
-        coupon.setLoyaltyId(request.getLoyaltyId());
-        coupon.setSource(request.getSource());
-        coupon.setRedeemedAt(now);
-
-        if (newUsageCount >= campaign.getMaxUsages()) {
-            coupon.setStatus(CouponStatus.MAX_USED);
-            log.info("Coupon {} has reached max usage ({}/{})", code, newUsageCount, campaign.getMaxUsages());
+        if (coupon.getUsageCount() >= metadata.getMaxUsages()) {
+            log.warn("Redemption attempt for coupon at usage limit: {}", code);
+            return RedemptionResponseDTO.builder()
+                    .success(false)
+                    .message("Coupon has reached maximum usage limit")
+                    .code(code)
+                    .usageCount(coupon.getUsageCount())
+                    .maxUsages(metadata.getMaxUsages())
+                    .remainingUsages(0)
+                    .build();
         }
 
-        couponRepository.save(coupon);
-        log.info("Successfully redeemed coupon: {} (usage {}/{}) - Transaction: {}, LoyaltyID: {}, Source: {}", 
-                code, newUsageCount, campaign.getMaxUsages(), 
-                request.getTransactionNumber(), request.getLoyaltyId(), request.getSource());
-
+        log.warn("Redemption attempt for coupon that could not be redeemed: {}", code);
         return RedemptionResponseDTO.builder()
-                .success(true)
-                .message("Coupon redeemed successfully")
+                .success(false)
+                .message("Coupon could not be redeemed")
                 .code(code)
-                .usageCount(newUsageCount)
-                .maxUsages(campaign.getMaxUsages())
-                .remainingUsages(campaign.getMaxUsages() - newUsageCount)
-                .transactionNumber(request.getTransactionNumber())
-                .loyaltyId(request.getLoyaltyId())
-                .source(request.getSource())
-                .redeemedAt(now.toString())
                 .build();
     }
 }
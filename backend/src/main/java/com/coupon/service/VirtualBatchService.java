@@ -0,0 +1,190 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.entity.Campaign;
+import com.coupon.entity.Coupon;
+import com.coupon.entity.CouponBatch;
+import com.coupon.entity.CouponStatus;
+import com.coupon.entity.GenerationMode;
+import com.coupon.repository.CampaignRepository;
+import com.coupon.repository.CouponBatchRepository;
+import com.coupon.repository.CouponRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualBatchService {
+
+    private final CampaignRepository campaignRepository;
+    private final CouponBatchRepository batchRepository;
+    private final CouponRepository couponRepository;
+    private final CounterCodeGenerator counterCodeGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    private static final int PREFIX_LENGTH = 6;
+    private static final int CODE_LENGTH = 14;
+    private static final int MAX_NEGATIVE_ENTRIES = 10000;
+
+    private static final String POSTGRES_INSERT_SQL =
+            "INSERT INTO coupon (id, batch_id, code, status, usage_count, created_at, updated_at) " +
+            "VALUES (nextval('coupon_seq'), ?, ?, ?, 0, ?, ?) ON CONFLICT (code) DO NOTHING";
+
+    private static final String ORACLE_INSERT_SQL =
+            "INSERT /*+ IGNORE_ROW_ON_DUPKEY_INDEX(coupon, coupon_code_uk) */ INTO coupon " +
+            "(id, batch_id, code, status, usage_count, created_at, updated_at) " +
+            "VALUES (coupon_seq.NEXTVAL, ?, ?, ?, 0, ?, ?)";
+
+    @Value("${coupon.virtual-batch.negative-cache-ms:5000}")
+    private long negativeCacheMs;
+
+    private final Set<String> virtualPrefixes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> checkedWithoutVirtualBatches = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadVirtualPrefixes() {
+        try {
+            virtualPrefixes.addAll(batchRepository.findVirtualBatchPrefixes());
+            log.info("Loaded {} campaign prefixes with virtual batches", virtualPrefixes.size());
+        } catch (Exception e) {
+            log.error("Failed to load virtual batch prefixes: {}", e.getMessage(), e);
+        }
+    }
+
+    public void registerPrefix(String prefix) {
+        virtualPrefixes.add(prefix);
+        checkedWithoutVirtualBatches.remove(prefix);
+    }
+
+    public boolean hasVirtualBatches(String prefix) {
+        if (virtualPrefixes.contains(prefix)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Long checkedAt = checkedWithoutVirtualBatches.get(prefix);
+        if (checkedAt != null && now - checkedAt < negativeCacheMs) {
+            return false;
+        }
+        if (batchRepository.existsVirtualBatchWithPrefix(prefix)) {
+            registerPrefix(prefix);
+            return true;
+        }
+        if (checkedWithoutVirtualBatches.size() >= MAX_NEGATIVE_ENTRIES) {
+            checkedWithoutVirtualBatches.clear();
+        }
+        checkedWithoutVirtualBatches.put(prefix, now);
+        return false;
+    }
+
+    @Transactional
+    public CouponBatch createVirtualBatch(Campaign campaign, int couponCount) {
+        if (campaign.getGenerationMode() != GenerationMode.PERMUTED_COUNTER) {
+            throw new RuntimeException("Virtual batches require a campaign with generation mode PERMUTED_COUNTER");
+        }
+
+        long counterStart = counterCodeGenerator.open(campaign).reserve(couponCount);
+        CouponBatch batch = batchRepository.save(CouponBatch.builder()
+                .campaign(campaign)
+                .couponCount(couponCount)
+                .virtualBatch(true)
+                .counterStart(counterStart)
+                .active(true)
+                .build());
+
+        registerPrefix(campaign.getPrefix());
+        log.info("Created virtual batch {} for campaign {} covering counters {}..{}",
+                batch.getId(), campaign.getName(), counterStart, counterStart + couponCount - 1);
+        return batch;
+    }
+
+    @Transactional
+    public boolean materialize(String normalizedCode) {
+        if (normalizedCode == null || normalizedCode.length() != CODE_LENGTH) {
+            return false;
+        }
+        String prefix = normalizedCode.substring(0, PREFIX_LENGTH);
+        if (!hasVirtualBatches(prefix)) {
+            return false;
+        }
+
+        Optional<Campaign> campaign = campaignRepository.findByPrefix(prefix);
+        if (campaign.isEmpty() || campaign.get().getGenerationMode() != GenerationMode.PERMUTED_COUNTER) {
+            return false;
+        }
+
+        OptionalLong counter = counterCodeGenerator.open(campaign.get()).counterOf(normalizedCode);
+        if (counter.isEmpty()) {
+            return false;
+        }
+
+        Optional<CouponBatch> batch = batchRepository.findVirtualBatchContaining(campaign.get().getId(), counter.getAsLong());
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = databaseDialect == DatabaseDialect.ORACLE ? ORACLE_INSERT_SQL : POSTGRES_INSERT_SQL;
+        int inserted = jdbcTemplate.update(sql, batch.get().getId(), normalizedCode,
+                initialStatus(batch.get(), LocalDate.now()).name(), now, now);
+        if (inserted > 0) {
+            log.info("Materialized coupon {} of virtual batch {}", normalizedCode, batch.get().getId());
+        }
+        return inserted > 0;
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachCoupon(CouponBatch batch, Consumer<Coupon> consumer) {
+        Map<String, Coupon> materialized = new HashMap<>();
+        for (Coupon coupon : couponRepository.findAllByBatchId(batch.getId())) {
+            materialized.put(coupon.getCode(), coupon);
+        }
+
+        CounterCodeGenerator.Session session = counterCodeGenerator.open(batch.getCampaign());
+        CouponStatus status = initialStatus(batch, LocalDate.now());
+        long end = batch.getCounterStart() + batch.getCouponCount();
+        for (long counter = batch.getCounterStart(); counter < end; counter++) {
+            String code = session.codeAt(counter);
+            Coupon coupon = materialized.get(code);
+            consumer.accept(coupon != null ? coupon : Coupon.builder()
+                    .batch(batch)
+                    .code(code)
+                    .status(status)
+                    .usageCount(0)
+                    .createdAt(batch.getCreatedAt())
+                    .updatedAt(batch.getCreatedAt())
+                    .build());
+        }
+    }
+
+    private CouponStatus initialStatus(CouponBatch batch, LocalDate today) {
+        if (!Boolean.TRUE.equals(batch.getActive())) {
+            return CouponStatus.INACTIVE;
+        }
+        if (batch.getCampaign().getExpiryDate() != null && batch.getCampaign().getExpiryDate().isBefore(today)) {
+            return CouponStatus.EXPIRED;
+        }
+        return CouponStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,91 @@
+package com.coupon.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long capacity, double falsePositiveRate) {
+        long expected = Math.max(1, capacity);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, ((bits + 63) / 64) * 64);
+        this.capacity = expected;
+        this.bitCount = bits;
+        this.hashCount = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+        this.words = new AtomicLongArray((int) (bits / 64));
+    }
+
+    public void put(CharSequence value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Math.floorMod(hash1 + i * hash2, bitCount));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isFull() {
+        return insertions.get() >= capacity;
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getSizeInBytes() {
+        return bitCount / 8;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        double fillRatio = 1 - Math.exp(-(double) hashCount * insertions.get() / bitCount);
+        return Math.pow(fillRatio, hashCount);
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    private static long hash(CharSequence value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,52 @@
+package com.coupon.util;
+
+public final class CheckCharacter {
+
+    public static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int BASE = ALPHABET.length();
+
+    private CheckCharacter() {
+    }
+
+    public static char compute(char[] payload, int length) {
+        int sum = 0;
+        int factor = 2;
+        for (int i = length - 1; i >= 0; i--) {
+            int value = valueOf(payload[i]);
+            if (value < 0) {
+                throw new IllegalArgumentException("Unsupported character '" + payload[i] + "' in coupon code");
+            }
+            sum += fold(factor * value);
+            factor = 3 - factor;
+        }
+        return ALPHABET.charAt((BASE - sum % BASE) % BASE);
+    }
+
+    public static boolean isValid(CharSequence code) {
+        int sum = 0;
+        int factor = 1;
+        for (int i = code.length() - 1; i >= 0; i--) {
+            int value = valueOf(code.charAt(i));
+            if (value < 0) {
+                return false;
+            }
+            sum += fold(factor * value);
+            factor = 3 - factor;
+        }
+        return sum % BASE == 0;
+    }
+
+    private static int fold(int addend) {
+        return addend / BASE + addend % BASE;
+    }
+
+    private static int valueOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 26;
+        }
+        return -1;
+    }
+}
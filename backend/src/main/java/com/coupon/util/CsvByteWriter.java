@@ -0,0 +1,190 @@
+package com.coupon.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+public class CsvByteWriter {
+
+    private static final byte SEPARATOR = ',';
+    private static final byte QUOTE = '"';
+    private static final byte NEWLINE = '\n';
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position;
+    private boolean rowStarted;
+    private long bytesWritten;
+    private long rowsWritten;
+    private long lastFlushNanos = System.nanoTime();
+
+    public CsvByteWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public CsvByteWriter field(CharSequence value) throws IOException {
+        int length = value != null ? value.length() : 0;
+        ensureCapacity(length * 3 + 3);
+        separate();
+        if (length == 0) {
+            return this;
+        }
+
+        int start = position;
+        if (!encode(value, false)) {
+            position = start;
+            buffer[position++] = QUOTE;
+            encode(value, true);
+            buffer[position++] = QUOTE;
+        }
+        return this;
+    }
+
+    public CsvByteWriter field(long value) throws IOException {
+        ensureCapacity(21);
+        separate();
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return ascii(Long.toString(value));
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + digits(value);
+        int index = end;
+        do {
+            buffer[--index] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        position = end;
+        return this;
+    }
+
+    public CsvByteWriter field(Object value) throws IOException {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvByteWriter encoded(byte[] fields) throws IOException {
+        ensureCapacity(fields.length + 1);
+        separate();
+        System.arraycopy(fields, 0, buffer, position, fields.length);
+        position += fields.length;
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = NEWLINE;
+        rowStarted = false;
+        rowsWritten++;
+    }
+
+    public void flushIfIdle(long intervalMillis) throws IOException {
+        if (System.nanoTime() - lastFlushNanos >= intervalMillis * 1_000_000L) {
+            flush();
+        }
+    }
+
+    public void flush() throws IOException {
+        lastFlushNanos = System.nanoTime();
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            bytesWritten += position;
+            position = 0;
+        }
+        out.flush();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public static byte[] encodeFields(CharSequence... values) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CsvByteWriter writer = new CsvByteWriter(bytes, 256);
+            for (CharSequence value : values) {
+                writer.field(value);
+            }
+            writer.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CsvByteWriter ascii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    private boolean encode(CharSequence value, boolean quoted) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    if (!quoted) {
+                        return false;
+                    }
+                    if (c == '"') {
+                        buffer[position++] = QUOTE;
+                    }
+                }
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return true;
+    }
+
+    private void separate() {
+        if (rowStarted) {
+            buffer[position++] = SEPARATOR;
+        }
+        rowStarted = true;
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (position + required <= buffer.length) {
+            return;
+        }
+        out.write(buffer, 0, position);
+        bytesWritten += position;
+        position = 0;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, required);
+        }
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
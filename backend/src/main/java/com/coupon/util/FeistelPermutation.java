@@ -0,0 +1,104 @@
+package com.coupon.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 10;
+
+    private final long domainSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final Cipher cipher;
+    private final byte[] block = new byte[16];
+    private final byte[] output = new byte[16];
+
+    public FeistelPermutation(byte[] key, long domainSize) {
+        if (domainSize < 2) {
+            throw new IllegalArgumentException("Domain size must be at least 2");
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(domainSize - 1);
+        if (bits > 62) {
+            throw new IllegalArgumentException("Domain size too large: " + domainSize);
+        }
+        this.domainSize = domainSize;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        try {
+            this.cipher = Cipher.getInstance("AES/ECB/NoPadding");
+            this.cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not available", e);
+        }
+    }
+
+    public long getDomainSize() {
+        return domainSize;
+    }
+
+    public long permute(long value) {
+        checkDomain(value);
+        long x = value;
+        do {
+            x = encryptOnce(x);
+        } while (x >= domainSize);
+        return x;
+    }
+
+    public long invert(long value) {
+        checkDomain(value);
+        long x = value;
+        do {
+            x = decryptOnce(x);
+        } while (x >= domainSize);
+        return x;
+    }
+
+    private long encryptOnce(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ roundFunction(round, right);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decryptOnce(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ roundFunction(round, left);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long roundFunction(int round, long half) {
+        block[0] = (byte) round;
+        for (int i = 0; i < 8; i++) {
+            block[8 + i] = (byte) (half >>> (56 - 8 * i));
+        }
+        try {
+            cipher.update(block, 0, block.length, output, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = (result << 8) | (output[i] & 0xFF);
+        }
+        return result & halfMask;
+    }
+
+    private void checkDomain(long value) {
+        if (value < 0 || value >= domainSize) {
+            throw new IllegalArgumentException("Value " + value + " outside permutation domain " + domainSize);
+        }
+    }
+}
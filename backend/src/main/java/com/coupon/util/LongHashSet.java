@@ -0,0 +1,83 @@
+package com.coupon.util;
+
+public final class LongHashSet {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.min(1 << 30, expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public boolean add(long value) {
+        if (value < 0 || value == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        long stored = value + 1;
+        int index = indexFor(stored);
+        while (slots[index] != 0) {
+            if (slots[index] == stored) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = stored;
+        if (++size >= resizeAt) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        long stored = value + 1;
+        int index = indexFor(stored);
+        while (slots[index] != 0) {
+            if (slots[index] == stored) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getSizeInBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private int indexFor(long stored) {
+        long h = stored;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void rehash() {
+        long[] previous = slots;
+        allocate(previous.length << 1);
+        for (long stored : previous) {
+            if (stored != 0) {
+                int index = indexFor(stored);
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = stored;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+}
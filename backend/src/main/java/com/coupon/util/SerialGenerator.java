@@ -0,0 +1,38 @@
+package com.coupon.util;
+
+import java.security.SecureRandom;
+
+public final class SerialGenerator {
+
+    private static final char[] ALPHABET = CheckCharacter.ALPHABET.toCharArray();
+    private static final int ACCEPT_LIMIT = 256 - 256 % ALPHABET.length;
+    private static final int POOL_SIZE = 4096;
+
+    private static final ThreadLocal<SerialGenerator> CURRENT = ThreadLocal.withInitial(SerialGenerator::new);
+
+    private final SecureRandom random = new SecureRandom();
+    private final byte[] pool = new byte[POOL_SIZE];
+    private int position = POOL_SIZE;
+
+    private SerialGenerator() {
+    }
+
+    public static SerialGenerator current() {
+        return CURRENT.get();
+    }
+
+    public void fill(char[] target, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (position == POOL_SIZE) {
+                random.nextBytes(pool);
+                position = 0;
+            }
+            int value = pool[position++] & 0xFF;
+            if (value < ACCEPT_LIMIT) {
+                target[i++] = ALPHABET[value % ALPHABET.length];
+            }
+        }
+    }
+}
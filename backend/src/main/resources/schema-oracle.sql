@@ -32,6 +32,24 @@ CREATE SEQUENCE COUPON_SEQ
     CACHE 1000
     NOCYCLE;
 
+CREATE SEQUENCE REDEMPTION_RECEIPT_SEQ
+    START WITH 1
+    INCREMENT BY 1
+    NOCACHE
+    NOCYCLE;
+
+CREATE SEQUENCE REDEMPTION_EVENT_SEQ
+    START WITH 1
+    INCREMENT BY 1
+    CACHE 1000
+    NOCYCLE;
+
+CREATE SEQUENCE GENERATION_JOB_SEQ
+    START WITH 1
+    INCREMENT BY 1
+    NOCACHE
+    NOCYCLE;
+
 -- ============================================
 -- TABLES
 -- ============================================
@@ -40,41 +58,52 @@ CREATE TABLE CAMPAIGN (
     ID NUMBER(19) DEFAULT CAMPAIGN_SEQ.NEXTVAL PRIMARY KEY,
     NAME VARCHAR2(255) NOT NULL,
     DESCRIPTION VARCHAR2(2000),
+    POS_CODE VARCHAR2(50),
+    ATG_CODE VARCHAR2(50),
+    PREFIX VARCHAR2(6) NOT NULL,
+    CODE_FORMAT VARCHAR2(20) DEFAULT 'STANDARD' NOT NULL,
+    GENERATION_MODE VARCHAR2(20) DEFAULT 'RANDOM' NOT NULL,
+    CODE_COUNTER NUMBER(19) DEFAULT 0 NOT NULL,
+    MAX_USAGES NUMBER(10) DEFAULT 1 NOT NULL,
+    START_DATE DATE NOT NULL,
+    EXPIRY_DATE DATE NOT NULL,
     CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     ACTIVE NUMBER(1) DEFAULT 1 NOT NULL,
-    CONSTRAINT CAMPAIGN_NAME_UK UNIQUE (NAME)
+    CONSTRAINT CAMPAIGN_NAME_UK UNIQUE (NAME),
+    CONSTRAINT CAMPAIGN_PREFIX_UK UNIQUE (PREFIX),
+    CONSTRAINT CAMPAIGN_PREFIX_CHK CHECK (PREFIX LIKE 'FF%' AND LENGTH(PREFIX) = 6),
+    CONSTRAINT CAMPAIGN_DATES_CHK CHECK (EXPIRY_DATE >= START_DATE),
+    CONSTRAINT CAMPAIGN_CODE_FORMAT_CHK CHECK (CODE_FORMAT IN ('STANDARD', 'CHECK_CHARACTER')),
+    CONSTRAINT CAMPAIGN_GENERATION_MODE_CHK CHECK (GENERATION_MODE IN ('RANDOM', 'PERMUTED_COUNTER')),
+    CONSTRAINT CAMPAIGN_USAGES_CHK CHECK (MAX_USAGES > 0)
 );
 
 COMMENT ON TABLE CAMPAIGN IS 'Stores marketing campaign information';
 COMMENT ON COLUMN CAMPAIGN.NAME IS 'Campaign name - must be unique';
+COMMENT ON COLUMN CAMPAIGN.PREFIX IS 'FF + 4 user-defined characters';
+COMMENT ON COLUMN CAMPAIGN.MAX_USAGES IS 'Maximum number of times each coupon can be redeemed';
 COMMENT ON COLUMN CAMPAIGN.ACTIVE IS '1=Active, 0=Inactive (soft delete)';
 
 CREATE TABLE COUPON_BATCH (
     ID NUMBER(19) DEFAULT COUPON_BATCH_SEQ.NEXTVAL PRIMARY KEY,
     CAMPAIGN_ID NUMBER(19) NOT NULL,
-    PREFIX VARCHAR2(6) NOT NULL,
     COUPON_COUNT NUMBER(10) NOT NULL,
-    POS_CODE VARCHAR2(50),
-    ATG_CODE VARCHAR2(50),
-    START_DATE DATE NOT NULL,
-    EXPIRY_DATE DATE NOT NULL,
-    MAX_USAGES NUMBER(10) DEFAULT 1 NOT NULL,
+    VIRTUAL_BATCH NUMBER(1) DEFAULT 0 NOT NULL,
+    COUNTER_START NUMBER(19),
     CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     ACTIVE NUMBER(1) DEFAULT 1 NOT NULL,
     CONSTRAINT BATCH_CAMPAIGN_FK FOREIGN KEY (CAMPAIGN_ID) 
         REFERENCES CAMPAIGN(ID) ON DELETE CASCADE,
-    CONSTRAINT BATCH_PREFIX_CHK CHECK (PREFIX LIKE 'FF%' AND LENGTH(PREFIX) = 6),
-    CONSTRAINT BATCH_DATES_CHK CHECK (EXPIRY_DATE >= START_DATE),
     CONSTRAINT BATCH_COUNT_CHK CHECK (COUPON_COUNT > 0 AND COUPON_COUNT <= 3000000),
-    CONSTRAINT BATCH_USAGES_CHK CHECK (MAX_USAGES > 0)
+    CONSTRAINT BATCH_VIRTUAL_CHK CHECK (VIRTUAL_BATCH = 0 OR COUNTER_START IS NOT NULL)
 );
 
 COMMENT ON TABLE COUPON_BATCH IS 'Stores batch generation metadata';
-COMMENT ON COLUMN COUPON_BATCH.PREFIX IS 'FF + 4 user-defined characters';
 COMMENT ON COLUMN COUPON_BATCH.COUPON_COUNT IS 'Number of coupons generated in this batch';
-COMMENT ON COLUMN COUPON_BATCH.MAX_USAGES IS 'Maximum number of times each coupon can be redeemed';
+COMMENT ON COLUMN COUPON_BATCH.VIRTUAL_BATCH IS '1=Codes are derived on demand and stored on first lookup or redemption';
+COMMENT ON COLUMN COUPON_BATCH.COUNTER_START IS 'First campaign counter value of a virtual batch';
 
 CREATE TABLE COUPON (
     ID NUMBER(19) DEFAULT COUPON_SEQ.NEXTVAL PRIMARY KEY,
@@ -82,6 +111,10 @@ CREATE TABLE COUPON (
     CODE VARCHAR2(14) NOT NULL,
     STATUS VARCHAR2(20) DEFAULT 'ACTIVE' NOT NULL,
     USAGE_COUNT NUMBER(10) DEFAULT 0 NOT NULL,
+    TRANSACTION_NUMBER VARCHAR2(100),
+    LOYALTY_ID VARCHAR2(100),
+    SOURCE VARCHAR2(20),
+    REDEEMED_AT TIMESTAMP,
     CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     UPDATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     CONSTRAINT COUPON_BATCH_FK FOREIGN KEY (BATCH_ID) 
@@ -95,6 +128,58 @@ COMMENT ON COLUMN COUPON.CODE IS 'Format: FF + 4 chars (prefix) + 8 random chars
 COMMENT ON COLUMN COUPON.STATUS IS 'ACTIVE, INACTIVE, EXPIRED, or MAX_USED';
 COMMENT ON COLUMN COUPON.USAGE_COUNT IS 'Number of times this coupon has been redeemed';
 
+CREATE TABLE REDEMPTION_RECEIPT (
+    ID NUMBER(19) DEFAULT REDEMPTION_RECEIPT_SEQ.NEXTVAL PRIMARY KEY,
+    IDEMPOTENCY_KEY VARCHAR2(140) NOT NULL,
+    CODE VARCHAR2(14) NOT NULL,
+    TRANSACTION_NUMBER VARCHAR2(100) NOT NULL,
+    SOURCE VARCHAR2(20),
+    LOYALTY_ID VARCHAR2(100),
+    USAGE_COUNT NUMBER(10),
+    MAX_USAGES NUMBER(10),
+    REDEEMED_AT TIMESTAMP,
+    CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT REDEMPTION_RECEIPT_KEY_UK UNIQUE (IDEMPOTENCY_KEY)
+);
+
+COMMENT ON TABLE REDEMPTION_RECEIPT IS 'Outcome of each redemption keyed by code, transaction number and source';
+COMMENT ON COLUMN REDEMPTION_RECEIPT.IDEMPOTENCY_KEY IS 'CODE|TRANSACTION_NUMBER|SOURCE - retries with the same key replay the stored outcome';
+
+CREATE TABLE REDEMPTION_EVENT (
+    ID NUMBER(19) DEFAULT REDEMPTION_EVENT_SEQ.NEXTVAL PRIMARY KEY,
+    CODE VARCHAR2(14) NOT NULL,
+    BATCH_ID NUMBER(19) NOT NULL,
+    USAGE_COUNT NUMBER(10) NOT NULL,
+    TRANSACTION_NUMBER VARCHAR2(100),
+    LOYALTY_ID VARCHAR2(100),
+    SOURCE VARCHAR2(20),
+    REDEEMED_AT TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE REDEMPTION_EVENT IS 'Append-only history of every successful redemption';
+COMMENT ON COLUMN REDEMPTION_EVENT.USAGE_COUNT IS 'Coupon usage count after this redemption';
+
+CREATE TABLE GENERATION_JOB (
+    ID NUMBER(19) DEFAULT GENERATION_JOB_SEQ.NEXTVAL PRIMARY KEY,
+    BATCH_ID NUMBER(19) NOT NULL,
+    CAMPAIGN_ID NUMBER(19) NOT NULL,
+    STATUS VARCHAR2(20) DEFAULT 'PENDING' NOT NULL,
+    REQUESTED_COUNT NUMBER(10) NOT NULL,
+    GENERATED_COUNT NUMBER(10) DEFAULT 0 NOT NULL,
+    CHUNKS_COMPLETED NUMBER(10) DEFAULT 0 NOT NULL,
+    RUN_START_COUNT NUMBER(10),
+    ATTEMPTS NUMBER(10) DEFAULT 0 NOT NULL,
+    ERROR_MESSAGE VARCHAR2(1000),
+    CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    STARTED_AT TIMESTAMP,
+    CHECKPOINT_AT TIMESTAMP,
+    COMPLETED_AT TIMESTAMP,
+    CONSTRAINT GENERATION_JOB_BATCH_FK FOREIGN KEY (BATCH_ID) REFERENCES COUPON_BATCH(ID) ON DELETE CASCADE,
+    CONSTRAINT GENERATION_JOB_STATUS_CHK CHECK (STATUS IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED'))
+);
+
+COMMENT ON TABLE GENERATION_JOB IS 'Background coupon generation for a batch, checkpointed after every committed chunk';
+
 -- ============================================
 -- INDEXES
 -- ============================================
@@ -103,18 +188,40 @@ COMMENT ON COLUMN COUPON.USAGE_COUNT IS 'Number of times this coupon has been re
 CREATE UNIQUE INDEX COUPON_CODE_UK ON COUPON(CODE);
 
 -- Performance indexes for filtering operations
-CREATE INDEX COUPON_BATCH_IDX ON COUPON(BATCH_ID);
+CREATE INDEX COUPON_BATCH_UPDATED_IDX ON COUPON(BATCH_ID, UPDATED_AT);
 CREATE INDEX COUPON_STATUS_IDX ON COUPON(STATUS);
-CREATE INDEX COUPON_CREATED_IDX ON COUPON(CREATED_AT);
+CREATE INDEX COUPON_CREATED_ID_IDX ON COUPON(CREATED_AT, ID);
+CREATE INDEX COUPON_BATCH_CREATED_IDX ON COUPON(BATCH_ID, CREATED_AT, ID);
+CREATE INDEX COUPON_UPDATED_IDX ON COUPON(UPDATED_AT);
 CREATE INDEX COUPON_CODE_PREFIX_IDX ON COUPON(SUBSTR(CODE, 1, 6));
 
+-- Substring code search (CONTAINS(CODE, '%X%') > 0) via an Oracle Text substring index
+BEGIN
+    CTX_DDL.CREATE_PREFERENCE('COUPON_CODE_WORDLIST', 'BASIC_WORDLIST');
+    CTX_DDL.SET_ATTRIBUTE('COUPON_CODE_WORDLIST', 'SUBSTRING_INDEX', 'TRUE');
+END;
+/
+CREATE INDEX COUPON_CODE_TEXT_IDX ON COUPON(CODE) INDEXTYPE IS CTXSYS.CONTEXT
+    PARAMETERS ('WORDLIST COUPON_CODE_WORDLIST SYNC (EVERY "SYSDATE+1/1440")');
+
 -- Batch filtering indexes
 CREATE INDEX BATCH_CAMPAIGN_IDX ON COUPON_BATCH(CAMPAIGN_ID);
-CREATE INDEX BATCH_DATES_IDX ON COUPON_BATCH(START_DATE, EXPIRY_DATE);
 CREATE INDEX BATCH_ACTIVE_IDX ON COUPON_BATCH(ACTIVE);
 
 -- Campaign indexes
 CREATE INDEX CAMPAIGN_ACTIVE_IDX ON CAMPAIGN(ACTIVE);
+CREATE INDEX CAMPAIGN_DATES_IDX ON CAMPAIGN(START_DATE, EXPIRY_DATE);
+
+-- Redemption receipt retention
+CREATE INDEX REDEMPTION_RECEIPT_CREATED_IDX ON REDEMPTION_RECEIPT(CREATED_AT);
+
+-- Redemption history lookups
+CREATE INDEX REDEMPTION_EVENT_CODE_IDX ON REDEMPTION_EVENT(CODE);
+CREATE INDEX REDEMPTION_EVENT_REDEEMED_IDX ON REDEMPTION_EVENT(REDEEMED_AT);
+
+-- Generation job lookups and resume on startup
+CREATE INDEX GENERATION_JOB_BATCH_IDX ON GENERATION_JOB(BATCH_ID);
+CREATE INDEX GENERATION_JOB_STATUS_IDX ON GENERATION_JOB(STATUS);
 
 -- ============================================
 -- TRIGGERS FOR UPDATED_AT
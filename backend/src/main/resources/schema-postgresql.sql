@@ -10,6 +10,9 @@
 CREATE SEQUENCE IF NOT EXISTS campaign_seq START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE IF NOT EXISTS coupon_batch_seq START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE IF NOT EXISTS coupon_seq START WITH 1 INCREMENT BY 1 CACHE 1000;
+CREATE SEQUENCE IF NOT EXISTS redemption_receipt_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS redemption_event_seq START WITH 1 INCREMENT BY 1 CACHE 1000;
+CREATE SEQUENCE IF NOT EXISTS generation_job_seq START WITH 1 INCREMENT BY 1;
 
 -- ============================================
 -- TABLES
@@ -22,6 +25,9 @@ CREATE TABLE IF NOT EXISTS campaign (
     pos_code VARCHAR(50),
     atg_code VARCHAR(50),
     prefix VARCHAR(6) NOT NULL CHECK (prefix LIKE 'FF%' AND LENGTH(prefix) = 6),
+    code_format VARCHAR(20) DEFAULT 'STANDARD' NOT NULL CHECK (code_format IN ('STANDARD', 'CHECK_CHARACTER')),
+    generation_mode VARCHAR(20) DEFAULT 'RANDOM' NOT NULL CHECK (generation_mode IN ('RANDOM', 'PERMUTED_COUNTER')),
+    code_counter BIGINT DEFAULT 0 NOT NULL CHECK (code_counter >= 0),
     max_usages INTEGER DEFAULT 1 NOT NULL CHECK (max_usages > 0),
     start_date DATE NOT NULL,
     expiry_date DATE NOT NULL CHECK (expiry_date >= start_date),
@@ -34,6 +40,8 @@ CREATE TABLE IF NOT EXISTS coupon_batch (
     id BIGINT DEFAULT nextval('coupon_batch_seq') PRIMARY KEY,
     campaign_id BIGINT NOT NULL REFERENCES campaign(id) ON DELETE CASCADE,
     coupon_count INTEGER NOT NULL CHECK (coupon_count > 0 AND coupon_count <= 3000000),
+    virtual_batch BOOLEAN DEFAULT FALSE NOT NULL,
+    counter_start BIGINT CHECK (NOT virtual_batch OR counter_start IS NOT NULL),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     active BOOLEAN DEFAULT TRUE NOT NULL
@@ -45,26 +53,88 @@ CREATE TABLE IF NOT EXISTS coupon (
     code VARCHAR(14) NOT NULL,
     status VARCHAR(20) DEFAULT 'ACTIVE' NOT NULL CHECK (status IN ('ACTIVE', 'INACTIVE', 'EXPIRED', 'MAX_USED')),
     usage_count INTEGER DEFAULT 0 NOT NULL CHECK (usage_count >= 0),
+    transaction_number VARCHAR(100),
+    loyalty_id VARCHAR(100),
+    source VARCHAR(20),
+    redeemed_at TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
 );
 
+CREATE TABLE IF NOT EXISTS redemption_receipt (
+    id BIGINT DEFAULT nextval('redemption_receipt_seq') PRIMARY KEY,
+    idempotency_key VARCHAR(140) NOT NULL,
+    code VARCHAR(14) NOT NULL,
+    transaction_number VARCHAR(100) NOT NULL,
+    source VARCHAR(20),
+    loyalty_id VARCHAR(100),
+    usage_count INTEGER,
+    max_usages INTEGER,
+    redeemed_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT redemption_receipt_key_uk UNIQUE (idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS redemption_event (
+    id BIGINT DEFAULT nextval('redemption_event_seq') PRIMARY KEY,
+    code VARCHAR(14) NOT NULL,
+    batch_id BIGINT NOT NULL,
+    usage_count INTEGER NOT NULL,
+    transaction_number VARCHAR(100),
+    loyalty_id VARCHAR(100),
+    source VARCHAR(20),
+    redeemed_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS generation_job (
+    id BIGINT DEFAULT nextval('generation_job_seq') PRIMARY KEY,
+    batch_id BIGINT NOT NULL REFERENCES coupon_batch(id) ON DELETE CASCADE,
+    campaign_id BIGINT NOT NULL,
+    status VARCHAR(20) DEFAULT 'PENDING' NOT NULL CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'FAILED')),
+    requested_count INTEGER NOT NULL,
+    generated_count INTEGER DEFAULT 0 NOT NULL,
+    chunks_completed INTEGER DEFAULT 0 NOT NULL,
+    run_start_count INTEGER,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    checkpoint_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
 -- ============================================
 -- INDEXES
 -- ============================================
 
 CREATE UNIQUE INDEX IF NOT EXISTS coupon_code_uk ON coupon(code);
-CREATE INDEX IF NOT EXISTS coupon_batch_idx ON coupon(batch_id);
+DROP INDEX IF EXISTS coupon_batch_idx;
+CREATE INDEX IF NOT EXISTS coupon_batch_updated_idx ON coupon(batch_id, updated_at);
 CREATE INDEX IF NOT EXISTS coupon_status_idx ON coupon(status);
-CREATE INDEX IF NOT EXISTS coupon_created_idx ON coupon(created_at);
+DROP INDEX IF EXISTS coupon_created_idx;
+CREATE INDEX IF NOT EXISTS coupon_created_id_idx ON coupon(created_at, id);
+CREATE INDEX IF NOT EXISTS coupon_batch_created_idx ON coupon(batch_id, created_at, id);
+CREATE INDEX IF NOT EXISTS coupon_updated_idx ON coupon(updated_at);
 CREATE INDEX IF NOT EXISTS coupon_code_prefix_idx ON coupon(SUBSTRING(code, 1, 6));
 
+-- Substring code search (code LIKE '%X%') via trigrams
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS coupon_code_trgm_idx ON coupon USING gin (code gin_trgm_ops);
+
 CREATE INDEX IF NOT EXISTS batch_campaign_idx ON coupon_batch(campaign_id);
 CREATE INDEX IF NOT EXISTS batch_active_idx ON coupon_batch(active);
 
 CREATE INDEX IF NOT EXISTS campaign_active_idx ON campaign(active);
 CREATE INDEX IF NOT EXISTS campaign_dates_idx ON campaign(start_date, expiry_date);
 
+CREATE INDEX IF NOT EXISTS redemption_receipt_created_idx ON redemption_receipt(created_at);
+
+CREATE INDEX IF NOT EXISTS redemption_event_code_idx ON redemption_event(code);
+CREATE INDEX IF NOT EXISTS redemption_event_redeemed_idx ON redemption_event(redeemed_at);
+
+CREATE INDEX IF NOT EXISTS generation_job_batch_idx ON generation_job(batch_id);
+CREATE INDEX IF NOT EXISTS generation_job_status_idx ON generation_job(status);
+
 -- ============================================
 -- TRIGGER FUNCTION FOR UPDATED_AT
 -- ============================================
@@ -0,0 +1,113 @@
+package com.coupon.service;
+
+import com.coupon.entity.Campaign;
+import com.coupon.entity.CouponBatch;
+import com.coupon.repository.CouponBatchRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers
+class CouponCsvExporterHeapTest {
+
+    private static final int COUPONS = 3_000_000;
+    private static final long SAMPLE_EVERY_ROWS = 250_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @org.testcontainers.junit.jupiter.Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forClasspathResource("schema-postgresql.sql"),
+                    "/tmp/schema-postgresql.sql");
+
+    private static CouponCsvExporter exporter;
+
+    @BeforeAll
+    static void loadCoupons() throws Exception {
+        Container.ExecResult result = POSTGRES.execInContainer("psql", "-v", "ON_ERROR_STOP=1",
+                "-U", POSTGRES.getUsername(), "-d", POSTGRES.getDatabaseName(), "-f", "/tmp/schema-postgresql.sql");
+        assertEquals(0, result.getExitCode(), result.getStderr());
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP INDEX coupon_code_trgm_idx");
+        jdbcTemplate.update("INSERT INTO campaign (name, prefix, start_date, expiry_date) " +
+                "VALUES ('Heap test', 'FFHEAP', CURRENT_DATE, CURRENT_DATE + 30)");
+        jdbcTemplate.update("INSERT INTO coupon_batch (campaign_id, coupon_count) SELECT id, ? FROM campaign", COUPONS);
+        jdbcTemplate.update("INSERT INTO coupon (batch_id, code) " +
+                "SELECT b.id, 'FFHEAP' || upper(lpad(to_hex(g), 8, '0')) FROM coupon_batch b, generate_series(1, ?) g",
+                COUPONS);
+        Long batchId = jdbcTemplate.queryForObject("SELECT id FROM coupon_batch", Long.class);
+
+        Campaign campaign = Campaign.builder().id(1L).name("Heap test").prefix("FFHEAP")
+                .startDate(LocalDate.now()).expiryDate(LocalDate.now().plusDays(30)).build();
+        CouponBatch batch = CouponBatch.builder().id(batchId).campaign(campaign).couponCount(COUPONS).build();
+        CouponBatchRepository batchRepository = mock(CouponBatchRepository.class);
+        when(batchRepository.findAllWithCampaign()).thenReturn(List.of(batch));
+
+        exporter = new CouponCsvExporter(dataSource,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), batchRepository, null);
+        ReflectionTestUtils.setField(exporter, "fetchSize", 5000);
+        ReflectionTestUtils.setField(exporter, "bufferSize", 65536);
+        ReflectionTestUtils.setField(exporter, "flushIntervalMs", 1000L);
+        ReflectionTestUtils.setField(exporter, "parallelPartitions", 1);
+        ReflectionTestUtils.setField(exporter, "parallelConnections", 1);
+        exporter.start();
+    }
+
+    @AfterAll
+    static void stopExporter() {
+        exporter.stop();
+    }
+
+    @Test
+    void fullExportKeepsHeapFlat() throws Exception {
+        long baseline = usedHeapAfterGc();
+        List<Long> samples = new ArrayList<>();
+        long[] nextSample = {SAMPLE_EVERY_ROWS};
+
+        CouponCsvExporter.Result result = exporter.exportAll(CouponCsvExporter.Layout.JOB, OutputStream.nullOutputStream(),
+                (rows, bytes) -> {
+                    if (rows >= nextSample[0]) {
+                        samples.add(usedHeapAfterGc() - baseline);
+                        nextSample[0] += SAMPLE_EVERY_ROWS;
+                    }
+                });
+
+        assertEquals(COUPONS, result.getRows());
+        assertTrue(samples.size() >= COUPONS / SAMPLE_EVERY_ROWS - 1, "too few heap samples: " + samples);
+        long peak = samples.stream().mapToLong(Long::longValue).max().orElse(0);
+        assertTrue(peak < MAX_HEAP_GROWTH_BYTES, "heap grew by " + peak + " bytes during export: " + samples);
+        long early = samples.get(0);
+        long late = samples.get(samples.size() - 1);
+        assertTrue(late - early < MAX_HEAP_GROWTH_BYTES / 4,
+                "heap kept growing with exported rows: " + samples);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
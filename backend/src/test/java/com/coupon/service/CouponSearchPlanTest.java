@@ -0,0 +1,106 @@
+package com.coupon.service;
+
+import com.coupon.config.DatabaseDialect;
+import com.coupon.dto.CouponSearchDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+class CouponSearchPlanTest {
+
+    private static final int COUPONS = 200_000;
+
+    @org.testcontainers.junit.jupiter.Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forClasspathResource("schema-postgresql.sql"),
+                    "/tmp/schema-postgresql.sql");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static CouponService couponService;
+
+    @BeforeAll
+    static void loadSchemaAndCoupons() throws Exception {
+        Container.ExecResult result = POSTGRES.execInContainer("psql", "-v", "ON_ERROR_STOP=1",
+                "-U", POSTGRES.getUsername(), "-d", POSTGRES.getDatabaseName(), "-f", "/tmp/schema-postgresql.sql");
+        assertEquals(0, result.getExitCode(), result.getStderr());
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.update("INSERT INTO campaign (name, prefix, start_date, expiry_date) " +
+                "VALUES ('Plan test', 'FFPLAN', CURRENT_DATE, CURRENT_DATE + 30)");
+        jdbcTemplate.update("INSERT INTO coupon_batch (campaign_id, coupon_count) SELECT id, ? FROM campaign", COUPONS);
+        jdbcTemplate.update("INSERT INTO coupon (batch_id, code, created_at) " +
+                "SELECT b.id, 'FFPLAN' || upper(substr(md5(g::text), 1, 8)), CURRENT_TIMESTAMP - g * INTERVAL '1 second' " +
+                "FROM coupon_batch b, generate_series(1, ?) g ON CONFLICT (code) DO NOTHING", COUPONS);
+        jdbcTemplate.execute("ANALYZE coupon");
+
+        couponService = new CouponService(null, jdbcTemplate, DatabaseDialect.POSTGRESQL);
+    }
+
+    @Test
+    void prefixSearchUsesCodeIndex() {
+        CouponSearchDTO search = CouponSearchDTO.builder().prefix("ffplan1a").build();
+
+        String plan = explainCount(search);
+
+        assertNoSequentialScan(plan);
+        assertTrue(plan.contains("coupon_code_uk"), plan);
+    }
+
+    @Test
+    void substringSearchUsesTrigramIndex() {
+        CouponSearchDTO search = CouponSearchDTO.builder().code("a1b2").build();
+
+        String plan = explainCount(search);
+
+        assertNoSequentialScan(plan);
+        assertTrue(plan.contains("coupon_code_trgm_idx"), plan);
+    }
+
+    @Test
+    void keysetPagesDoNotScanCoupons() {
+        CouponService.Cursor cursor = new CouponService.Cursor(false, Timestamp.valueOf(LocalDateTime.now()), Long.MAX_VALUE);
+        for (CouponSearchDTO search : List.of(
+                CouponSearchDTO.builder().prefix("FFPLAN1A").build(),
+                CouponSearchDTO.builder().code("A1B2").build())) {
+            assertNoSequentialScan(explainSeek(search, null));
+            assertNoSequentialScan(explainSeek(search, cursor));
+        }
+    }
+
+    private String explainCount(CouponSearchDTO search) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM coupon c WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        couponService.appendFilters(sql, args, search);
+        return explain(sql.toString(), args);
+    }
+
+    private String explainSeek(CouponSearchDTO search, CouponService.Cursor cursor) {
+        List<Object> args = new ArrayList<>();
+        String sql = couponService.seekSql(search, cursor, 21, args);
+        return explain(sql, args);
+    }
+
+    private String explain(String sql, List<Object> args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args.toArray()));
+    }
+
+    private void assertNoSequentialScan(String plan) {
+        assertFalse(plan.contains("Seq Scan on coupon "), plan);
+    }
+}
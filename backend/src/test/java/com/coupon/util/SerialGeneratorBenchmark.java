@@ -0,0 +1,85 @@
+package com.coupon.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled {@link SerialGenerator} with the per-character SecureRandom generator it replaced.
+ * Scores are per code; run {@link #main} (or JMH with {@code -prof gc}) to also get
+ * {@code gc.alloc.rate.norm}, the bytes allocated per code.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialGeneratorBenchmark {
+
+    private static final int CHUNK = 5000;
+    private static final int SERIAL_LENGTH = 8;
+    private static final String PREFIX = "FFBNCH";
+    private static final String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public List<String> pooled() {
+        SerialGenerator serials = SerialGenerator.current();
+        char[] buffer = new char[PREFIX.length() + SERIAL_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buffer, 0);
+
+        List<String> codes = new ArrayList<>(CHUNK);
+        for (int i = 0; i < CHUNK; i++) {
+            serials.fill(buffer, PREFIX.length(), SERIAL_LENGTH);
+            codes.add(new String(buffer));
+        }
+        return codes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public List<String> legacy() {
+        Set<String> candidates = new HashSet<>();
+        int attempts = 0;
+        while (candidates.size() < CHUNK && attempts < CHUNK * 5) {
+            candidates.add(PREFIX + legacySerial());
+            attempts++;
+        }
+        return new ArrayList<>(candidates);
+    }
+
+    private static String legacySerial() {
+        StringBuilder sb = new StringBuilder(SERIAL_LENGTH);
+        for (int i = 0; i < SERIAL_LENGTH; i++) {
+            sb.append(CHARS.charAt(RANDOM.nextInt(CHARS.length())));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SerialGeneratorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
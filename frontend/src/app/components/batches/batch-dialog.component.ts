@@ -25,10 +25,16 @@ export class BatchDialogComponent {
     
     this.form = this.fb.group({
       campaignId: ['', Validators.required],
-      couponCount: [1000, [Validators.required, Validators.min(1), Validators.max(3000000)]]
+      couponCount: [1000, [Validators.required, Validators.min(1), Validators.max(3000000)]],
+      virtualBatch: [false]
     });
   }
 
+  get supportsVirtualBatch(): boolean {
+    const campaign = this.campaigns.find(c => c.id === this.form.get('campaignId')?.value);
+    return campaign?.generationMode === 'PERMUTED_COUNTER';
+  }
+
   save(): void {
     if (this.form.invalid) return;
 
@@ -37,7 +43,8 @@ export class BatchDialogComponent {
     
     const batch: CouponBatch = {
       campaignId: formValue.campaignId,
-      couponCount: formValue.couponCount
+      couponCount: formValue.couponCount,
+      virtualBatch: this.supportsVirtualBatch && formValue.virtualBatch
     };
 
     this.apiService.createBatch(batch).subscribe({
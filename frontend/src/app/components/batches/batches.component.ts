@@ -136,16 +136,43 @@ export class BatchesComponent implements OnInit, OnDestroy {
             this.pendingExports.delete(batchId);
             poll.unsubscribe();
             this.snackBar.open('Export failed: ' + (job.errorMessage || 'Unknown error'), 'Close', { duration: 5000 });
+          } else if (job.status === 'CANCELLED' || job.status === 'EXPIRED') {
+            this.pendingExports.delete(batchId);
+            poll.unsubscribe();
           }
         }
       });
     });
   }
 
+  cancelExport(batchId: number): void {
+    const job = this.exportJobs.get(batchId);
+    if (!job) return;
+
+    this.apiService.cancelExportJob(job.id).subscribe({
+      next: (cancelled) => {
+        this.exportJobs.set(batchId, cancelled);
+        this.snackBar.open('Export cancelled', 'Close', { duration: 3000 });
+      },
+      error: (err) => {
+        this.snackBar.open(err.error?.message || 'Failed to cancel export', 'Close', { duration: 3000 });
+      }
+    });
+  }
+
   getExportJob(batchId: number): ExportJob | undefined {
     return this.exportJobs.get(batchId);
   }
 
+  exportProgress(batchId: number): string {
+    const job = this.exportJobs.get(batchId);
+    if (!job || job.status !== 'PROCESSING' || !job.rowsWritten) return 'Generating...';
+    const percent = job.expectedRecords ? Math.min(99, Math.floor(job.rowsWritten * 100 / job.expectedRecords)) : null;
+    const eta = job.estimatedCompletion ? ', done ~' + new Date(job.estimatedCompletion).toLocaleTimeString() : '';
+    return (percent !== null ? percent + '%' : job.rowsWritten.toLocaleString() + ' rows')
+      + ' (' + (job.rowsPerSecond || 0).toLocaleString() + ' rows/s' + eta + ')';
+  }
+
   isExporting(batchId: number): boolean {
     return this.pendingExports.has(batchId);
   }
@@ -30,6 +30,8 @@ export class CampaignDialogComponent {
       atgCode: [data?.atgCode || '', [Validators.required, Validators.maxLength(50)]],
       userPrefix: [data?.userPrefix || '', [Validators.required, Validators.minLength(4), Validators.maxLength(4), Validators.pattern(/^[A-Z0-9]{4}$/)]],
       maxUsages: [data?.maxUsages || 1, [Validators.required, Validators.min(1)]],
+      codeFormat: [{ value: data?.codeFormat || 'STANDARD', disabled: !!data }],
+      generationMode: [{ value: data?.generationMode || 'RANDOM', disabled: !!data }],
       startDate: [data?.startDate ? new Date(data.startDate) : '', Validators.required],
       expiryDate: [data?.expiryDate ? new Date(data.expiryDate) : '', Validators.required]
     });
@@ -52,6 +54,8 @@ export class CampaignDialogComponent {
       atgCode: formValue.atgCode || null,
       userPrefix: formValue.userPrefix.toUpperCase(),
       maxUsages: formValue.maxUsages,
+      codeFormat: this.isEdit ? this.data!.codeFormat : formValue.codeFormat,
+      generationMode: this.isEdit ? this.data!.generationMode : formValue.generationMode,
       startDate: this.formatDate(formValue.startDate),
       expiryDate: this.formatDate(formValue.expiryDate)
     };
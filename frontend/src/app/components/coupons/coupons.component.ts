@@ -19,6 +19,8 @@ export class CouponsComponent implements OnInit {
   totalElements = 0;
   pageSize = 20;
   pageIndex = 0;
+  nextCursor?: string;
+  prevCursor?: string;
   
   displayedColumns = ['code', 'campaign', 'status', 'usages', 'dates', 'codes', 'created'];
   statusOptions = ['ACTIVE', 'INACTIVE', 'EXPIRED', 'MAX_USED'];
@@ -49,7 +51,7 @@ export class CouponsComponent implements OnInit {
     });
   }
 
-  searchCoupons(): void {
+  searchCoupons(cursor?: string): void {
     this.loading = true;
     const formValue = this.filterForm.value;
 
@@ -60,14 +62,23 @@ export class CouponsComponent implements OnInit {
       campaignId: formValue.campaignId || undefined,
       createdFrom: formValue.createdFrom ? this.formatDate(formValue.createdFrom) : undefined,
       createdTo: formValue.createdTo ? this.formatDate(formValue.createdTo) : undefined,
-      page: this.pageIndex,
-      size: this.pageSize
+      size: this.pageSize,
+      keyset: true,
+      cursor: cursor,
+      includeTotal: !cursor
     };
 
     this.apiService.searchCoupons(search).subscribe({
       next: (response: PagedResponse<Coupon>) => {
         this.coupons = response.content;
-        this.totalElements = response.totalElements;
+        if (response.totalElements !== undefined && response.totalElements !== null) {
+          this.totalElements = response.totalElements;
+        }
+        this.nextCursor = response.nextCursor;
+        this.prevCursor = response.prevCursor;
+        if (response.first) {
+          this.pageIndex = 0;
+        }
         this.loading = false;
       },
       error: () => {
@@ -93,9 +104,16 @@ export class CouponsComponent implements OnInit {
   }
 
   onPageChange(event: PageEvent): void {
-    this.pageIndex = event.pageIndex;
+    const previousPageIndex = event.previousPageIndex ?? this.pageIndex;
+    let cursor: string | undefined;
+    if (event.pageSize === this.pageSize && event.pageIndex === previousPageIndex + 1) {
+      cursor = this.nextCursor;
+    } else if (event.pageSize === this.pageSize && event.pageIndex === previousPageIndex - 1) {
+      cursor = this.prevCursor;
+    }
     this.pageSize = event.pageSize;
-    this.searchCoupons();
+    this.pageIndex = cursor ? event.pageIndex : 0;
+    this.searchCoupons(cursor);
   }
 
   getStatusClass(status: string): string {
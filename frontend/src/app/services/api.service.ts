@@ -11,6 +11,8 @@ export interface Campaign {
   atgCode?: string;
   userPrefix: string;
   prefix?: string;
+  codeFormat?: 'STANDARD' | 'CHECK_CHARACTER';
+  generationMode?: 'RANDOM' | 'PERMUTED_COUNTER';
   maxUsages: number;
   startDate: string;
   expiryDate: string;
@@ -35,6 +37,9 @@ export interface CouponBatch {
   activeCoupons?: number;
   usedCoupons?: number;
   expiredCoupons?: number;
+  generationJobId?: number;
+  generationStatus?: 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+  virtualBatch?: boolean;
 }
 
 export interface Coupon {
@@ -57,10 +62,12 @@ export interface PagedResponse<T> {
   content: T[];
   page: number;
   size: number;
-  totalElements: number;
-  totalPages: number;
+  totalElements?: number;
+  totalPages?: number;
   first: boolean;
   last: boolean;
+  nextCursor?: string;
+  prevCursor?: string;
 }
 
 export interface CouponSearch {
@@ -73,6 +80,9 @@ export interface CouponSearch {
   createdTo?: string;
   page?: number;
   size?: number;
+  keyset?: boolean;
+  cursor?: string;
+  includeTotal?: boolean;
 }
 
 export interface ExportJob {
@@ -80,9 +90,20 @@ export interface ExportJob {
   batchId?: number;
   campaignId?: number;
   exportType: string;
-  status: 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED';
+  status: 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED' | 'CANCELLED' | 'EXPIRED';
   fileName?: string;
   totalRecords?: number;
+  compression?: 'NONE' | 'GZIP';
+  fileSizeBytes?: number;
+  uncompressedSizeBytes?: number;
+  watermarkFrom?: string;
+  watermarkTo?: string;
+  startedAt?: string;
+  expectedRecords?: number;
+  rowsWritten?: number;
+  bytesWritten?: number;
+  rowsPerSecond?: number;
+  estimatedCompletion?: string;
   errorMessage?: string;
   createdAt: string;
   completedAt?: string;
@@ -159,6 +180,9 @@ export class ApiService {
     if (search.createdTo) params = params.set('createdTo', search.createdTo);
     if (search.page !== undefined) params = params.set('page', search.page.toString());
     if (search.size !== undefined) params = params.set('size', search.size.toString());
+    if (search.keyset) params = params.set('keyset', 'true');
+    if (search.cursor) params = params.set('cursor', search.cursor);
+    if (search.includeTotal) params = params.set('includeTotal', 'true');
 
     return this.http.get<PagedResponse<Coupon>>(`${this.apiUrl}/coupons/search`, { params });
   }
@@ -223,6 +247,10 @@ export class ApiService {
     return this.http.get<ExportJob>(`${this.apiUrl}/export/job/${jobId}`);
   }
 
+  cancelExportJob(jobId: number): Observable<ExportJob> {
+    return this.http.post<ExportJob>(`${this.apiUrl}/export/job/${jobId}/cancel`, {});
+  }
+
   getExportJobs(): Observable<ExportJob[]> {
     return this.http.get<ExportJob[]>(`${this.apiUrl}/export/jobs`);
   }